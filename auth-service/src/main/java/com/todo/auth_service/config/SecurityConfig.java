@@ -1,5 +1,9 @@
 package com.todo.auth_service.config;
 
+import com.todo.auth_service.util.BCryptCalibration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,10 +13,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -26,8 +34,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // A fixed auth.password.bcrypt.strength wins; otherwise the strength whose hash takes about
+    // target-time here. Stored hashes below it are upgraded on login (AuthService.login).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.password.bcrypt.target-time:250ms}") Duration targetTime,
+                                           @Value("${auth.password.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.password.bcrypt.max-strength:14}") int maxStrength) {
+        int chosen = strength > 0 ? strength : BCryptCalibration.strengthFor(targetTime, minStrength, maxStrength);
+        log.info("BCrypt strength | strength={} calibrated={}", chosen, strength <= 0);
+        return new BCryptPasswordEncoder(chosen);
     }
 }
@@ -3,16 +3,22 @@ package com.todo.auth_service.controller;
 import com.todo.auth_service.generated.api.AuthApi;
 import com.todo.auth_service.generated.model.*;
 import com.todo.auth_service.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Objects;
+
 @RestController
 public class AuthController implements AuthApi {
 
     private final AuthService authService;
+    private final HttpServletRequest servletRequest;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, HttpServletRequest servletRequest) {
         this.authService = authService;
+        this.servletRequest = servletRequest;
     }
 
     @Override
@@ -36,8 +42,35 @@ public class AuthController implements AuthApi {
         dto.setUsername(request.getUsername());
         dto.setPassword(request.getPassword());
 
-        String token = authService.login(dto);
-        return ResponseEntity.ok(new LoginUser200Response().token(token));
+        return ResponseEntity.ok(tokenResponse(authService.login(dto, clientAddress())));
+    }
+
+    // The gateway appends the address it received the request from to X-Forwarded-For, so the
+    // last entry is the client; anything before it came from the client and is not trusted
+    private String clientAddress() {
+        String forwarded = servletRequest.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.substring(forwarded.lastIndexOf(',') + 1).strip();
+        }
+        return servletRequest.getRemoteAddr();
+    }
+
+    @Override
+    public ResponseEntity<LoginUser200Response> refreshToken(RefreshTokenRequest request) {
+        return ResponseEntity.ok(tokenResponse(authService.refresh(request.getRefreshToken())));
+    }
+
+    @Override
+    public ResponseEntity<Void> logoutUser(RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private LoginUser200Response tokenResponse(com.todo.auth_service.dto.TokenPair tokens) {
+        return new LoginUser200Response()
+                .token(tokens.getAccessToken())
+                .refreshToken(tokens.getRefreshToken())
+                .expiresIn(tokens.getExpiresIn());
     }
 
     @Override
@@ -46,6 +79,16 @@ public class AuthController implements AuthApi {
         return ResponseEntity.ok(new UserExists200Response().exists(exists));
     }
 
+    @Override
+    public ResponseEntity<UsersExist200Response> usersExist(UsersExistRequest request) {
+        List<String> usernames = request.getUsernames().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        var existing = authService.existingUsers(usernames);
+        return ResponseEntity.ok(new UsersExist200Response().existing(existing));
+    }
+
     @Override
     public ResponseEntity<ValidateToken200Response> validateToken(String authorization) {
 //        String token = authorization.replace("Bearer ", "");
@@ -2,10 +2,25 @@ package com.todo.auth_service.repo;
 
 import com.todo.auth_service.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // One IN query for a batch existence check; reads only the username column
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    // Only replaces the hash it was computed from; returns 0 if the password changed meanwhile
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :upgraded WHERE u.id = :id AND u.password = :current")
+    int updatePassword(Long id, String current, String upgraded);
 }
 
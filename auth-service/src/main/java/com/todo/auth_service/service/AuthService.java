@@ -2,6 +2,7 @@ package com.todo.auth_service.service;
 
 import com.todo.auth_service.dto.LoginRequest;
 import com.todo.auth_service.dto.RegisterRequest;
+import com.todo.auth_service.dto.TokenPair;
 import com.todo.auth_service.dto.UserResponse;
 import com.todo.auth_service.exception.InvalidCredentialsException;
 import com.todo.auth_service.exception.UserAlreadyExistsException;
@@ -9,20 +10,32 @@ import com.todo.auth_service.exception.UserNotFoundException;
 import com.todo.auth_service.model.User;
 import com.todo.auth_service.repo.UserRepository;
 import com.todo.auth_service.util.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.todo.auth_service.exception.PasswordHashingOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordHasher passwordHasher,
+                       LoginThrottle loginThrottle, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public UserResponse register(RegisterRequest request) {
@@ -32,27 +45,65 @@ public class AuthService {
 
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         userRepository.save(user);
 
         return new UserResponse(user.getId(), user.getUsername(), "User registered successfully!");
     }
 
-    public String login(LoginRequest request) {
+    // clientAddress is the caller as the gateway saw it; the lockout applies to that client only
+    public TokenPair login(LoginRequest request, String clientAddress) {
+        // Locked-out clients are refused before any database read or BCrypt work
+        loginThrottle.checkAllowed(request.getUsername(), clientAddress);
+
         User existingUser = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new UserNotFoundException("User not found!"));
 
-        if (!passwordEncoder.matches(request.getPassword(), existingUser.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), existingUser.getPassword())) {
+            loginThrottle.recordFailure(existingUser.getUsername(), clientAddress);
             throw new InvalidCredentialsException("Invalid credentials!");
         }
+        loginThrottle.recordSuccess(existingUser.getUsername(), clientAddress);
+
+        if (passwordHasher.needsRehash(existingUser.getPassword())) {
+            rehash(existingUser, request.getPassword());
+        }
+
+        return new TokenPair(jwtUtil.generateToken(existingUser.getUsername()),
+                refreshTokenService.issue(existingUser.getUsername()), jwtUtil.getExpirationSeconds());
+    }
 
-        return jwtUtil.generateToken(existingUser.getUsername());
+    // New access token without the password: one indexed lookup, no BCrypt
+    public TokenPair refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        return new TokenPair(jwtUtil.generateToken(rotation.username()), rotation.refreshToken(),
+                jwtUtil.getExpirationSeconds());
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    // The plain password is only available here, so hashes below the current strength are
+    // upgraded on the user's next successful login
+    private void rehash(User user, String rawPassword) {
+        try {
+            String upgraded = passwordHasher.encode(rawPassword);
+            // Compare-and-set: a password change since the read wins
+            userRepository.updatePassword(user.getId(), user.getPassword(), upgraded);
+        } catch (PasswordHashingOverloadedException e) {
+            log.debug("Rehash skipped under load | user={}", user.getUsername());
+        }
     }
 
     public boolean userExists(String username) {
         return userRepository.findByUsername(username).isPresent();
     }
 
+    public List<String> existingUsers(Collection<String> usernames) {
+        return userRepository.findExistingUsernames(usernames);
+    }
+
     public boolean validateToken(String token) {
         return jwtUtil.validateToken(token);
     }
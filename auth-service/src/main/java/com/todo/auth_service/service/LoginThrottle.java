@@ -0,0 +1,86 @@
+package com.todo.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.auth_service.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Failed-login backoff per (username, client address). After auth.login.throttle.max-failures
+ * wrong passwords in a row, each further attempt from that client is refused, without a database
+ * read or a BCrypt check, for base-lockout doubling with every new failure up to max-lockout. A
+ * successful login clears the count; so does max-lockout without any failure. Keying on the
+ * client as well means someone guessing at an account cannot lock its owner out.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxFailures;
+    private final long baseLockoutNanos;
+    private final long maxLockoutNanos;
+    private final LongSupplier clock;
+    private final Cache<String, Failures> failures;
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.login.throttle.max-failures:5}") int maxFailures,
+                         @Value("${auth.login.throttle.base-lockout:1s}") Duration baseLockout,
+                         @Value("${auth.login.throttle.max-lockout:15m}") Duration maxLockout) {
+        this(maxFailures, baseLockout, maxLockout, System::nanoTime);
+    }
+
+    LoginThrottle(int maxFailures, Duration baseLockout, Duration maxLockout, LongSupplier clock) {
+        this.maxFailures = maxFailures;
+        this.baseLockoutNanos = baseLockout.toNanos();
+        this.maxLockoutNanos = maxLockout.toNanos();
+        this.clock = clock;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(maxLockout)
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    public void checkAllowed(String username, String clientAddress) {
+        Failures current = failures.getIfPresent(key(username, clientAddress));
+        if (current == null) {
+            return;
+        }
+        long waitNanos = current.blockedUntil() - clock.getAsLong();
+        if (waitNanos > 0) {
+            throw new LoginThrottledException("Too many failed login attempts, try again later",
+                    TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+        }
+    }
+
+    public void recordFailure(String username, String clientAddress) {
+        long now = clock.getAsLong();
+        failures.asMap().compute(key(username, clientAddress), (key, previous) -> {
+            int count = previous != null ? previous.count() + 1 : 1;
+            if (count < maxFailures) {
+                return new Failures(count, now);
+            }
+            long lockout = baseLockoutNanos;
+            for (int i = maxFailures; i < count && lockout < maxLockoutNanos; i++) {
+                lockout <<= 1;
+            }
+            return new Failures(count, now + Math.min(lockout, maxLockoutNanos));
+        });
+    }
+
+    public void recordSuccess(String username, String clientAddress) {
+        failures.invalidate(key(username, clientAddress));
+    }
+
+    private static String key(String username, String clientAddress) {
+        return username + "|" + clientAddress;
+    }
+
+    private record Failures(int count, long blockedUntil) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.todo.auth_service.service;
+
+import com.todo.auth_service.exception.InvalidRefreshTokenException;
+import com.todo.auth_service.model.RefreshToken;
+import com.todo.auth_service.repo.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens: 256 random bits for the client, their SHA-256 in refresh_tokens. A
+ * refresh is one indexed lookup and one conditional UPDATE instead of a BCrypt check.
+ * <p>
+ * Each refresh rotates the token: the presented one is marked used and a new one in the same
+ * family is returned. A used (or concurrently claimed) token coming back means it was copied,
+ * so the whole family is revoked and both holders have to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:14d}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = lifetime;
+    }
+
+    /** Starts a new family, at login. */
+    @Transactional
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Spends the token and returns the username with its replacement. Revocations made here
+     * must survive the exception, hence noRollbackFor.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        Instant now = Instant.now();
+        if (token.isRevoked() || token.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired or revoked");
+        }
+        if (token.getUsedAt() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            log.warn("Refresh token reuse, family revoked | user={} family={}", token.getUsername(), token.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token already used");
+        }
+        return new Rotation(token.getUsername(), issue(token.getUsername(), token.getFamilyId()));
+    }
+
+    /** Logout: ends the token's family. Unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    // Expired rows can no longer be refreshed, so reuse detection does not need them either
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpiredBefore(Instant.now());
+        if (purged > 0) {
+            log.info("Purged expired refresh tokens | count={}", purged);
+        }
+    }
+
+    private String issue(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), username, familyId, Instant.now().plus(lifetime)));
+        return rawToken;
+    }
+
+    // Unsalted is fine: the input is 256 random bits, not a password
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(String username, String refreshToken) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.todo.auth_service.util;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength whose hash takes closest to a target time on this machine. One hash
+ * at the minimum strength is timed (best of a few, after a warm-up) and every extra step of
+ * strength doubles it.
+ */
+public final class BCryptCalibration {
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode("warm-up");
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+        return strengthFor(target, fastest, minStrength, maxStrength);
+    }
+
+    static int strengthFor(Duration target, long nanosAtMinStrength, int minStrength, int maxStrength) {
+        double doublings = Math.log((double) target.toNanos() / Math.max(1, nanosAtMinStrength)) / Math.log(2);
+        int strength = minStrength + (int) Math.round(doublings);
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+}
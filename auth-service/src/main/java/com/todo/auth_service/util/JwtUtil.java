@@ -19,6 +19,10 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration; // in seconds
 
+    public long getExpirationSeconds() {
+        return expiration;
+    }
+
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(secretKey.getBytes());
     }
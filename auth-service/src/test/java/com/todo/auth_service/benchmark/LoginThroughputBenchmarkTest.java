@@ -0,0 +1,84 @@
+package com.todo.auth_service.benchmark;
+
+import com.todo.auth_service.service.PasswordHasher;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks per second against the BCrypt strength (JMH, run with -Pbenchmark), from as
+ * many caller threads as there are cores:
+ * <ul>
+ *   <li>onCallerThread: BCrypt on the request thread, as AuthService.login used to;</li>
+ *   <li>onHashingPool: through PasswordHasher with its default pool (every core but one), the
+ *   ceiling a login burst can take from the rest of the service.</li>
+ * </ul>
+ * Each strength step doubles the work, so throughput roughly halves; the score at the strength
+ * auth.password.bcrypt.target-time picks is the login capacity of one instance.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LoginThroughputBenchmarkTest {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(LoginThroughputBenchmarkTest.class.getName() + ".")
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        // Room in the queue for every caller thread, so nothing is shed
+        hasher = new PasswordHasher(encoder, 0, Runtime.getRuntime().availableProcessors(), Duration.ofMinutes(1));
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.destroy();
+    }
+
+    @Benchmark
+    public boolean onCallerThread() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    @Benchmark
+    public boolean onHashingPool() {
+        return hasher.matches("correct horse battery staple", hash);
+    }
+}
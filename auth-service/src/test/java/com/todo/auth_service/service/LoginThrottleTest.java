@@ -0,0 +1,78 @@
+package com.todo.auth_service.service;
+
+import com.todo.auth_service.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginThrottleTest {
+
+    private static final String CLIENT = "203.0.113.7";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LoginThrottle throttle = new LoginThrottle(3, Duration.ofSeconds(1), Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void lockoutStartsAtMaxFailuresAndDoubles() {
+        fail(2);
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", CLIENT));
+
+        fail(1);
+        assertEquals(1, retryAfter());
+        advance(Duration.ofSeconds(1));
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", CLIENT));
+
+        fail(1);
+        assertEquals(2, retryAfter());
+        fail(3);
+        // 16s, capped
+        assertEquals(10, retryAfter());
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("bob", CLIENT));
+    }
+
+    @Test
+    void successAndQuietTimeClearTheCount() {
+        fail(3);
+        throttle.recordSuccess("alice", CLIENT);
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", CLIENT));
+
+        fail(2);
+        advance(Duration.ofSeconds(11));
+        fail(1);
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", CLIENT));
+    }
+
+    @Test
+    void oneClientsFailuresDoNotLockOutAnother() {
+        fail(5);
+        assertEquals(4, retryAfter());
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", "198.51.100.20"));
+        throttle.recordFailure("alice", "198.51.100.20");
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", "198.51.100.20"));
+
+        // The owner's successful login leaves the other client's lockout in place
+        throttle.recordSuccess("alice", "198.51.100.20");
+        assertEquals(4, retryAfter());
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure("alice", CLIENT);
+        }
+    }
+
+    private long retryAfter() {
+        return assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", CLIENT)).getRetryAfterSeconds();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
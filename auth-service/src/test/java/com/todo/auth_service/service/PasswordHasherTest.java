@@ -0,0 +1,91 @@
+package com.todo.auth_service.service;
+
+import com.todo.auth_service.exception.PasswordHashingOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void shutDown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void hashesBelowTheCurrentStrengthNeedARehash() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(6), 1, 4, Duration.ofSeconds(5));
+
+        String current = hasher.encode("secret");
+        assertTrue(hasher.matches("secret", current));
+        assertFalse(hasher.matches("wrong", current));
+        assertFalse(hasher.needsRehash(current));
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    @Test
+    void fullQueueIsShedImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(release), 1, 1, Duration.ofSeconds(5));
+
+        // One on the thread, one queued; the third has nowhere to go
+        List<CompletableFuture<Boolean>> admitted = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            admitted.add(CompletableFuture.supplyAsync(() -> hasher.matches("secret", "hash")));
+        }
+        while (hasher.queued() < 1) {
+            Thread.sleep(5);
+        }
+
+        long started = System.nanoTime();
+        assertThrows(PasswordHashingOverloadedException.class, () -> hasher.matches("secret", "hash"));
+        assertTrue(System.nanoTime() - started < Duration.ofMillis(100).toNanos());
+
+        release.countDown();
+        for (CompletableFuture<Boolean> result : admitted) {
+            assertTrue(result.get());
+        }
+    }
+
+    @Test
+    void waitingLongerThanMaxWaitFails() {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(release), 1, 4, Duration.ofMillis(100));
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> hasher.matches("secret", "hash"));
+        release.countDown();
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+    }
+}
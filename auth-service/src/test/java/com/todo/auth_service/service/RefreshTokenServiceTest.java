@@ -0,0 +1,70 @@
+package com.todo.auth_service.service;
+
+import com.todo.auth_service.exception.InvalidRefreshTokenException;
+import com.todo.auth_service.repo.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Service calls commit on their own so a revocation made while throwing is visible afterwards
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "eureka.client.enabled=false"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void eachRefreshRotatesTheToken() {
+        String first = refreshTokenService.issue("alice");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertEquals("alice", rotation.username());
+        assertNotEquals(first, rotation.refreshToken());
+        assertEquals("alice", refreshTokenService.rotate(rotation.refreshToken()).username());
+        // Only hashes are stored
+        assertTrue(refreshTokenRepository.findAll().stream().noneMatch(token -> token.getTokenHash().equals(first)));
+    }
+
+    @Test
+    void reusingASpentTokenRevokesTheFamily() {
+        String stolen = refreshTokenService.issue("alice");
+        String current = refreshTokenService.rotate(stolen).refreshToken();
+        String otherLogin = refreshTokenService.issue("alice");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(stolen));
+
+        // The legitimate holder's newer token went with it; another login did not
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(current));
+        assertEquals("alice", refreshTokenService.rotate(otherLogin).username());
+    }
+
+    @Test
+    void logoutAndUnknownTokens() {
+        String token = refreshTokenService.issue("alice");
+        refreshTokenService.revoke(token);
+        refreshTokenService.revoke("never-issued");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("never-issued"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.todo.gateway_service.accesslog;
+
+/**
+ * One finished request, as captured on the event loop: raw values only, formatting happens on
+ * the writer thread.
+ */
+public record AccessLogEvent(
+        long timestampMillis,
+        String requestId,
+        String method,
+        String path,
+        int status,
+        long durationNanos,
+        String user,
+        String clientIp,
+        String route) {
+}
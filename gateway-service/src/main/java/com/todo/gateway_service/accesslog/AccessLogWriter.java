@@ -0,0 +1,186 @@
+package com.todo.gateway_service.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Access log pipeline: AccessLogFilter offers finished requests into a RingBuffer, and one
+ * background thread drains it in batches of up to batch-size, formats them as JSON lines and
+ * writes each batch with a single call to the "access" logger (plain %msg%n in
+ * logback-spring.xml). Nothing on the event loop formats, locks or does I/O; when the ring is
+ * full the event is dropped and counted in gateway.access_log.dropped.
+ * <p>
+ * Sampling is by status: sample-rate.success (below 400, default 1%), sample-rate.client-error
+ * and sample-rate.server-error (both 100%).
+ */
+@Component
+public class AccessLogWriter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private final boolean enabled;
+    private final double successRate;
+    private final double clientErrorRate;
+    private final double serverErrorRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final RingBuffer<AccessLogEvent> buffer;
+    private final Consumer<String> output;
+    private final Counter dropped;
+    private final Counter written;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessLogWriter(@Value("${gateway.access-log.enabled:true}") boolean enabled,
+                           @Value("${gateway.access-log.sample-rate.success:0.01}") double successRate,
+                           @Value("${gateway.access-log.sample-rate.client-error:1.0}") double clientErrorRate,
+                           @Value("${gateway.access-log.sample-rate.server-error:1.0}") double serverErrorRate,
+                           @Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${gateway.access-log.batch-size:256}") int batchSize,
+                           @Value("${gateway.access-log.flush-interval:200ms}") Duration flushInterval,
+                           MeterRegistry meterRegistry) {
+        this(enabled, successRate, clientErrorRate, serverErrorRate, bufferSize, batchSize, flushInterval,
+                meterRegistry, accessLog::info);
+    }
+
+    AccessLogWriter(boolean enabled, double successRate, double clientErrorRate, double serverErrorRate,
+                    int bufferSize, int batchSize, Duration flushInterval, MeterRegistry meterRegistry,
+                    Consumer<String> output) {
+        this.enabled = enabled;
+        this.successRate = successRate;
+        this.clientErrorRate = clientErrorRate;
+        this.serverErrorRate = serverErrorRate;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.output = output;
+        this.dropped = Counter.builder("gateway.access_log.dropped")
+                .description("Access log events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("gateway.access_log.written")
+                .description("Access log events written")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access_log.buffer.capacity", buffer, RingBuffer::capacity)
+                .description("Access log ring buffer slots")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "access-log-writer");
+        writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /** Whether a request that finished with this status should be logged. */
+    public boolean sampled(int status) {
+        if (!enabled) {
+            return false;
+        }
+        double rate = status >= 500 ? serverErrorRate : status >= 400 ? clientErrorRate : successRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /** Never blocks; drops (and counts) the event when the buffer is full. */
+    public void offer(AccessLogEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<AccessLogEvent> batch = new ArrayList<>(batchSize);
+        StringBuilder lines = new StringBuilder(batchSize * 200);
+        while (running) {
+            if (buffer.drain(batch::add, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch, lines);
+        }
+        // Shutting down: flush what is left
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            write(batch, lines);
+        }
+    }
+
+    private void write(List<AccessLogEvent> batch, StringBuilder lines) {
+        try {
+            for (AccessLogEvent event : batch) {
+                if (!lines.isEmpty()) {
+                    lines.append('\n');
+                }
+                appendJson(lines, event);
+            }
+            output.accept(lines.toString());
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Access log batch failed | events={}", batch.size(), e);
+        } finally {
+            batch.clear();
+            lines.setLength(0);
+        }
+    }
+
+    static void appendJson(StringBuilder out, AccessLogEvent event) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.timestampMillis())).append('"');
+        field(out, "requestId", event.requestId());
+        field(out, "method", event.method());
+        field(out, "path", event.path());
+        out.append(",\"status\":").append(event.status());
+        out.append(",\"durationMs\":").append(TimeUnit.NANOSECONDS.toMicros(event.durationNanos()) / 1000.0);
+        field(out, "user", event.user());
+        field(out, "clientIp", event.clientIp());
+        field(out, "route", event.route());
+        out.append('}');
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+}
@@ -0,0 +1,21 @@
+package com.todo.gateway_service.bff;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.Map;
+
+/**
+ * Body of GET /api/dashboard. todos and summary are todo-service's JSON copied through as is;
+ * a branch that failed or timed out is null and named in errors with the reason.
+ */
+public record Dashboard(@JsonRawValue String todos,
+                        @JsonRawValue String summary,
+                        @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, String> errors) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return todos == null && summary == null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.todo.gateway_service.bff;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans one dashboard request out to todo-service: the list page (with the caller's query
+ * string) and /todos/summary, in parallel over a load-balanced WebClient. Each branch has its
+ * own gateway.dashboard.branch-timeout; a slow or failing branch is left out of the result
+ * instead of failing or holding up the other one.
+ */
+@Component
+public class DashboardAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardAggregator.class);
+
+    static final String TODOS = "todos";
+    static final String SUMMARY = "summary";
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final Duration branchTimeout;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DashboardAggregator(WebClient.Builder webClientBuilder,
+                               ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                               @Value("${gateway.dashboard.todo-service-url:http://todo-service}") String todoServiceUrl,
+                               @Value("${gateway.dashboard.branch-timeout:800ms}") Duration branchTimeout,
+                               MeterRegistry meterRegistry) {
+        this(webClientBuilder.clone().filter(loadBalancer).build(), todoServiceUrl, branchTimeout, meterRegistry);
+    }
+
+    DashboardAggregator(WebClient webClient, String baseUrl, Duration branchTimeout, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.baseUrl = baseUrl;
+        this.branchTimeout = branchTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param identity   X-User, X-Roles and X-Request-Id as JwtAuthFilter set them
+     * @param listQuery  raw (still encoded) query string for the list, or null
+     */
+    public Mono<Dashboard> load(HttpHeaders identity, String listQuery) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        String listPath = listQuery != null && !listQuery.isEmpty() ? "/todos?" + listQuery : "/todos";
+        return Mono.zip(
+                        fetch(TODOS, listPath, identity, errors),
+                        fetch(SUMMARY, "/todos/summary", identity, errors))
+                .map(branches -> new Dashboard(
+                        branches.getT1().orElse(null),
+                        branches.getT2().orElse(null),
+                        errors));
+    }
+
+    private Mono<Optional<String>> fetch(String branch, String path, HttpHeaders identity,
+                                         Map<String, String> errors) {
+        return webClient.get()
+                // The caller's query is already encoded; a URI is sent as is, unlike a template
+                .uri(URI.create(baseUrl + path))
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.addAll(identity))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(branchTimeout)
+                .map(body -> {
+                    outcome(branch, "ok");
+                    return Optional.of(body);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> failed(branch, "empty response", errors)))
+                .onErrorResume(e -> Mono.just(failed(branch, reason(e), errors)));
+    }
+
+    private Optional<String> failed(String branch, String reason, Map<String, String> errors) {
+        log.debug("Dashboard branch failed | branch={} reason={}", branch, reason);
+        outcome(branch, reason.equals("timeout") ? "timeout" : "error");
+        // Branches complete on different threads
+        synchronized (errors) {
+            errors.put(branch, reason);
+        }
+        return Optional.empty();
+    }
+
+    private static String reason(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientResponseException response) {
+            return "status " + response.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+
+    private void outcome(String branch, String outcome) {
+        Counter.builder("gateway.dashboard.branches")
+                .description("Dashboard fan-out calls to todo-service by branch and outcome")
+                .tag("branch", branch)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,58 @@
+package com.todo.gateway_service.bff;
+
+import com.todo.gateway_service.filter.JwtAuthFilter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Target of the "dashboard" route (DashboardRouteConfig). Only reached through the route's
+ * filter chain, which has already verified the JWT; a direct request to the forward path
+ * carries no verified user and gets a 404.
+ */
+@RestController
+public class DashboardController {
+
+    static final String FORWARD_PATH = "/bff/dashboard";
+    // Set by JwtAuthFilter; X-User is taken from the verified attribute instead
+    private static final List<String> FORWARDED_HEADERS = List.of("X-Roles", "X-Request-Id");
+
+    private final DashboardAggregator aggregator;
+
+    public DashboardController(DashboardAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @GetMapping(FORWARD_PATH)
+    public Mono<ResponseEntity<Dashboard>> dashboard(ServerWebExchange exchange) {
+        String user = exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR);
+        if (user == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders identity = new HttpHeaders();
+        identity.set("X-User", user);
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeaders().getFirst(header);
+            if (value != null) {
+                identity.set(header, value);
+            }
+        }
+
+        return aggregator.load(identity, request.getURI().getRawQuery())
+                .map(dashboard -> ResponseEntity
+                        // Partial results are still a 200; only nothing at all is a gateway error
+                        .status(dashboard.isEmpty() ? HttpStatus.BAD_GATEWAY : HttpStatus.OK)
+                        .cacheControl(CacheControl.noStore().cachePrivate())
+                        .body(dashboard));
+    }
+}
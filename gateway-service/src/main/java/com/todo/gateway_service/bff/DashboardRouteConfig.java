@@ -0,0 +1,25 @@
+package com.todo.gateway_service.bff;
+
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * GET /api/dashboard: one request (and one JWT check) for everything the todo page shows on
+ * load. Declared here rather than with the config server routes because its target is this
+ * gateway; the forward keeps it behind JwtAuthFilter, RateLimitFilter and the access log.
+ */
+@Configuration
+public class DashboardRouteConfig {
+
+    @Bean
+    public RouteLocator dashboardRoute(RouteLocatorBuilder routes) {
+        return routes.routes()
+                .route("dashboard", route -> route
+                        .path("/api/dashboard")
+                        .and().method("GET")
+                        .uri("forward:" + DashboardController.FORWARD_PATH))
+                .build();
+    }
+}
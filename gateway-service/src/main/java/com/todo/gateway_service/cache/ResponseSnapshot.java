@@ -0,0 +1,42 @@
+package com.todo.gateway_service.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A complete, buffered downstream response that can be written again to other exchanges
+ * (coalesced followers, response cache hits). Headers are read-only.
+ */
+public record ResponseSnapshot(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        // Keep what this exchange already set (CORS headers for its own Origin)
+        headers.forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().put(name, new ArrayList<>(values));
+            }
+        });
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    // Approximate heap footprint in bytes, for memory-bounded stores
+    long weight() {
+        long weight = 64L + body.length;
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+}
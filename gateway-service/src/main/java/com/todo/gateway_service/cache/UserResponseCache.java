@@ -0,0 +1,101 @@
+package com.todo.gateway_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Short-lived downstream responses per verified user, shared by every route with the
+ * UserResponseCache filter. The store is bounded by gateway.response-cache.max-size, weighing
+ * entries by body and header bytes; no entry lives longer than gateway.response-cache.max-ttl.
+ * <p>
+ * Invalidation is by user and in memory only: invalidate(user) records when it happened, and
+ * any entry whose request started before that is treated as gone. Comparing against the
+ * request's start rather than the time it was stored also drops responses that were read
+ * before a write and only came back after it. Other gateway instances keep serving their own
+ * copies until the TTL runs out.
+ */
+@Component
+public class UserResponseCache implements MeterBinder {
+
+    private final Duration maxTtl;
+    private final Cache<Key, Entry> entries;
+    // Last invalidation per user (System.nanoTime). Kept at least as long as any entry can live.
+    private final Cache<String, Long> invalidatedAt;
+
+    public UserResponseCache(@Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                             @Value("${gateway.response-cache.max-ttl:30s}") Duration maxTtl) {
+        this.maxTtl = maxTtl;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) ->
+                        (int) Math.min(Integer.MAX_VALUE, key.weight() + entry.response().weight()))
+                .expireAfter(Expiry.creating((Key key, Entry entry) -> entry.ttl()))
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(maxTtl)
+                .build();
+    }
+
+    /**
+     * The stored response for the user's request, or null when there is none or the user has
+     * been invalidated since it was read.
+     */
+    public ResponseSnapshot get(String user, String request) {
+        Key key = new Key(user, request);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isStale(user, entry.requestStartedAt())) {
+            entries.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.response();
+    }
+
+    /**
+     * Stores a response for ttl (capped at max-ttl). requestStartedAt is the System.nanoTime
+     * at which the request that produced it was received.
+     */
+    public void put(String user, String request, long requestStartedAt, ResponseSnapshot response, Duration ttl) {
+        if (isStale(user, requestStartedAt)) {
+            return;
+        }
+        Duration capped = ttl.compareTo(maxTtl) < 0 ? ttl : maxTtl;
+        entries.put(new Key(user, request), new Entry(response, requestStartedAt, capped));
+    }
+
+    public void invalidate(String user) {
+        invalidatedAt.put(user, System.nanoTime());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "gateway.response_cache");
+    }
+
+    private boolean isStale(String user, long requestStartedAt) {
+        Long invalidated = invalidatedAt.getIfPresent(user);
+        return invalidated != null && invalidated - requestStartedAt >= 0;
+    }
+
+    private record Key(String user, String request) {
+
+        long weight() {
+            return 32L + user.length() + request.length();
+        }
+    }
+
+    private record Entry(ResponseSnapshot response, long requestStartedAt, Duration ttl) {
+    }
+}
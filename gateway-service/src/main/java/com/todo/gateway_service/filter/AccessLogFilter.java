@@ -0,0 +1,79 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.accesslog.AccessLogEvent;
+import com.todo.gateway_service.accesslog.AccessLogWriter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Feeds AccessLogWriter. Runs before JwtAuthFilter so rejected requests (401, 429) are logged
+ * too. On the event loop it only reads the clock, rolls the sampling dice and, for sampled
+ * requests, allocates one event.
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    // nginx's code for requests the client gave up on
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private final AccessLogWriter writer;
+
+    public AccessLogFilter(AccessLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startedAt = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    int status = status(exchange, signal);
+                    if (writer.sampled(status)) {
+                        writer.offer(event(exchange, status, System.nanoTime() - startedAt));
+                    }
+                });
+    }
+
+    private static int status(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null) {
+            return status.value();
+        }
+        // Errors are rendered after the filter chain, by the error handler
+        return signal == SignalType.ON_ERROR ? 500 : 200;
+    }
+
+    private static AccessLogEvent event(ServerWebExchange exchange, int status, long durationNanos) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String requestId = exchange.getAttribute(JwtAuthFilter.REQUEST_ID_ATTR);
+        return new AccessLogEvent(
+                System.currentTimeMillis(),
+                requestId != null ? requestId : exchange.getRequest().getId(),
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getURI().getRawPath(),
+                status,
+                durationNanos,
+                exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR),
+                remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null,
+                route != null ? route.getId() : null);
+    }
+
+    @Override
+    public int getOrder() {
+        return -200;
+    }
+}
@@ -0,0 +1,67 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.cache.ResponseSnapshot;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+
+// Passes the body through untouched while copying it, up to the size limit
+final class CapturingResponse extends ServerHttpResponseDecorator {
+
+    private final int maxBodyBytes;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private boolean complete = true;
+
+    CapturingResponse(ServerHttpResponse delegate, int maxBodyBytes) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> chunks) {
+        return super.writeWith(Flux.from(chunks).doOnNext(this::copy));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> chunks) {
+        // Streamed responses are never captured
+        complete = false;
+        return super.writeAndFlushWith(chunks);
+    }
+
+    private void copy(DataBuffer chunk) {
+        if (!complete) {
+            return;
+        }
+        int readable = chunk.readableByteCount();
+        if (body.size() + readable > maxBodyBytes) {
+            complete = false;
+            body.reset();
+            return;
+        }
+        byte[] bytes = new byte[readable];
+        int position = chunk.readPosition();
+        chunk.read(bytes);
+        chunk.readPosition(position);
+        body.writeBytes(bytes);
+    }
+
+    /**
+     * The response as written, or null when it was streamed, over the size limit or never
+     * got a status.
+     */
+    ResponseSnapshot captured() {
+        HttpStatusCode status = getStatusCode();
+        if (!complete || status == null) {
+            return null;
+        }
+        return new ResponseSnapshot(status, HttpHeaders.readOnlyHttpHeaders(getHeaders()), body.toByteArray());
+    }
+}
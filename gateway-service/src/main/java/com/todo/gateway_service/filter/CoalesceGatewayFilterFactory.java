@@ -0,0 +1,150 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.cache.ResponseSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in route filter ({@code filters: - Coalesce}) that collapses identical concurrent GETs
+ * (same verified user, path, query, Accept and If-None-Match) into one upstream call.
+ * <p>
+ * The first request (the leader) goes upstream as usual and its response streams back
+ * unchanged, with a copy of the body kept on the side. Requests that arrive while it is in
+ * flight (followers) wait up to maxWait and are answered from that copy. A follower makes
+ * its own call if the wait runs out, the leader fails, or the body is over maxBodySize.
+ * Nothing is kept once the leader completes: this is coalescing, not caching.
+ * <p>
+ * gateway.coalescing.requests is tagged role=leader|follower|fallback, so the coalescing ratio
+ * is follower / total.
+ */
+@Component
+public class CoalesceGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.leaders = counter(meterRegistry, "leader");
+        this.followers = counter(meterRegistry, "follower");
+        this.fallbacks = counter(meterRegistry, "fallback");
+        Gauge.builder("gateway.coalescing.in_flight", inFlight, ConcurrentMap::size)
+                .description("Upstream calls currently shared by coalesced requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        int maxBodyBytes = (int) config.getMaxBodySize().toBytes();
+        GatewayFilter filter = (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String key = key(exchange);
+            InFlight created = new InFlight();
+            InFlight existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                return follow(existing, exchange, chain, config.getMaxWait());
+            }
+            leaders.increment();
+            return lead(key, created, exchange, chain, maxBodyBytes);
+        };
+        // Like ModifyResponseBody: wrap the response before NettyWriteResponseFilter writes to it
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> lead(String key, InFlight shared, ServerWebExchange exchange, GatewayFilterChain chain,
+                            int maxBodyBytes) {
+        CapturingResponse capture = new CapturingResponse(exchange.getResponse(), maxBodyBytes);
+        return chain.filter(exchange.mutate().response(capture).build())
+                .doFinally(signal -> {
+                    // Unregister first, so requests from now on start a fresh call
+                    inFlight.remove(key, shared);
+                    ResponseSnapshot response = signal == SignalType.ON_COMPLETE ? capture.captured() : null;
+                    if (response != null) {
+                        shared.result.tryEmitValue(response);
+                    } else {
+                        shared.result.tryEmitEmpty();
+                    }
+                });
+    }
+
+    private Mono<Void> follow(InFlight shared, ServerWebExchange exchange, GatewayFilterChain chain, Duration maxWait) {
+        return shared.result.asMono()
+                .timeout(maxWait, Mono.empty())
+                // Both branches complete empty, so signal a value to keep switchIfEmpty to the no-result case
+                .flatMap(response -> {
+                    followers.increment();
+                    return response.writeTo(exchange.getResponse()).thenReturn(Boolean.TRUE);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    fallbacks.increment();
+                    return chain.filter(exchange).thenReturn(Boolean.TRUE);
+                }))
+                .then();
+    }
+
+    private static String key(ServerWebExchange exchange) {
+        String user = exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR);
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return (user != null ? user : "")
+                + '\n' + exchange.getRequest().getURI().getRawPath()
+                + '\n' + exchange.getRequest().getURI().getRawQuery()
+                + '\n' + headers.getFirst(HttpHeaders.ACCEPT)
+                + '\n' + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    private static Counter counter(MeterRegistry registry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET requests through the Coalesce filter")
+                .tag("role", role)
+                .register(registry);
+    }
+
+    private static final class InFlight {
+        private final Sinks.One<ResponseSnapshot> result = Sinks.one();
+    }
+
+    public static class Config {
+
+        private Duration maxWait = Duration.ofSeconds(2);
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.hedge.HedgeBudget;
+import com.todo.gateway_service.hedge.LatencyWindow;
+import com.todo.gateway_service.loadbalancer.InstanceStats;
+import com.todo.gateway_service.loadbalancer.LatencyAwareLoadBalancer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opt-in route filter ({@code filters: - Hedge}) for GETs on lb:// routes. It takes over the
+ * upstream call from NettyRoutingFilter. When the instance the load balancer picked has not
+ * answered (status and headers) within the route's recent percentile latency, a second attempt
+ * goes to another instance of the same service. Whichever answers first is streamed back and the
+ * other is cancelled.
+ * <p>
+ * Hedging only starts once the route has minSamples responses, and each hedge spends from the
+ * global HedgeBudget; without budget the request simply waits for its first attempt. A failing
+ * hedge never decides the outcome, while a failing first attempt does, exactly as without
+ * hedging.
+ * <p>
+ * Metrics: gateway.hedging.sent, gateway.hedging.won (the hedge answered first) and
+ * gateway.hedging.budget_denied.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final long WINDOW_REFRESH_NANOS = Duration.ofMillis(250).toNanos();
+
+    private final HttpClient httpClient;
+    // Global httpclient.response-timeout, for routes without response-timeout metadata
+    private final Duration responseTimeout;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceStats stats;
+    private final HedgeBudget budget;
+    private final Counter sent;
+    private final Counter won;
+    private final Counter denied;
+
+    public HedgeGatewayFilterFactory(HttpClient httpClient,
+                                     HttpClientProperties httpClientProperties,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                     LoadBalancerClientFactory clientFactory,
+                                     InstanceStats stats,
+                                     HedgeBudget budget,
+                                     MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.responseTimeout = httpClientProperties.getResponseTimeout();
+        this.headersFilters = headersFilters;
+        this.clientFactory = clientFactory;
+        this.stats = stats;
+        this.budget = budget;
+        this.sent = Counter.builder("gateway.hedging.sent")
+                .description("Second attempts sent for slow GETs")
+                .register(meterRegistry);
+        this.won = Counter.builder("gateway.hedging.won")
+                .description("Hedged GETs answered by the second attempt")
+                .register(meterRegistry);
+        this.denied = Counter.builder("gateway.hedging.budget_denied")
+                .description("Hedges not sent because the hedge budget was spent")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        LatencyWindow window = new LatencyWindow(WINDOW_SIZE, config.getPercentile() / 100,
+                config.getMinSamples(), WINDOW_REFRESH_NANOS);
+        GatewayFilter filter = (exchange, chain) -> {
+            URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                    || url == null || chosen == null || !chosen.hasServer()) {
+                return chain.filter(exchange);
+            }
+
+            budget.deposit();
+            long started = System.nanoTime();
+            DefaultHttpHeaders headers = requestHeaders(exchange);
+            Mono<Attempt> answer = send(url, headers, false);
+            long hedgeAfter = window.percentile(started);
+            if (hedgeAfter >= 0) {
+                Duration delay = Duration.ofNanos(Math.max(hedgeAfter, config.getMinDelay().toNanos()));
+                answer = race(answer, Mono.delay(delay).then(Mono.defer(() -> hedge(chosen.getServer(), url, headers))));
+            }
+            Duration timeout = responseTimeout(exchange);
+            if (timeout != null) {
+                // Same outcome as NettyRoutingFilter's response timeout
+                answer = answer.timeout(timeout)
+                        .onErrorMap(TimeoutException.class,
+                                e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+            }
+
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+            return answer
+                    .flatMap(attempt -> {
+                        window.record(System.nanoTime() - started);
+                        if (attempt.hedge()) {
+                            won.increment();
+                            // The first attempt was cancelled, so the exchange time is not its latency
+                            exchange.getAttributes().put(LoadBalancerStatsFilter.ABANDONED_ATTR, true);
+                        }
+                        return write(attempt, exchange);
+                    })
+                    .then(chain.filter(exchange));
+        };
+        // After ReactiveLoadBalancerClientFilter and LoadBalancerStatsFilter, before NettyRoutingFilter
+        return new OrderedGatewayFilter(filter, ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2);
+    }
+
+    // The route's response-timeout metadata (milliseconds, negative for none) over the global
+    // httpclient.response-timeout, read as NettyRoutingFilter.getResponseTimeout does
+    private Duration responseTimeout(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !route.getMetadata().containsKey(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR)) {
+            return responseTimeout;
+        }
+        Object value = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        try {
+            Long millis = value instanceof Number number ? Long.valueOf(number.longValue())
+                    : value != null ? Long.valueOf(value.toString()) : null;
+            return millis != null && millis >= 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return responseTimeout;
+        }
+    }
+
+    // First attempt to answer wins; the loser is cancelled, or closed if it answered anyway
+    private static Mono<Attempt> race(Mono<Attempt> first, Mono<Attempt> hedge) {
+        Queue<Attempt> answered = new ConcurrentLinkedQueue<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        return Mono.firstWithSignal(
+                        track(first, answered, settled),
+                        // A failed hedge must not beat a first attempt that is still going
+                        track(hedge, answered, settled).onErrorResume(e -> Mono.never()))
+                .doOnNext(winner -> {
+                    settled.set(true);
+                    answered.stream().filter(attempt -> attempt != winner).forEach(Attempt::close);
+                });
+    }
+
+    private static Mono<Attempt> track(Mono<Attempt> attempt, Queue<Attempt> answered, AtomicBoolean settled) {
+        return attempt.doOnNext(answer -> {
+            answered.add(answer);
+            if (settled.get()) {
+                answer.close();
+            }
+        });
+    }
+
+    private Mono<Attempt> hedge(ServiceInstance first, URI url, DefaultHttpHeaders headers) {
+        ServiceInstanceListSupplier supplier = clientFactory.getInstance(first.getServiceId(), ServiceInstanceListSupplier.class);
+        if (supplier == null) {
+            return Mono.never();
+        }
+        return supplier.get().next().flatMap(instances -> {
+            List<ServiceInstance> others = instances.stream()
+                    .filter(instance -> !instance.getHost().equals(first.getHost()) || instance.getPort() != first.getPort())
+                    .toList();
+            if (others.isEmpty()) {
+                return Mono.never();
+            }
+            if (!budget.tryWithdraw()) {
+                denied.increment();
+                return Mono.never();
+            }
+
+            ServiceInstance target = pick(first.getServiceId(), others);
+            URI hedgeUrl = UriComponentsBuilder.fromUri(url)
+                    .scheme(target.isSecure() ? "https" : "http")
+                    .host(target.getHost())
+                    .port(target.getPort())
+                    .build(true)
+                    .toUri();
+            sent.increment();
+            long started = System.nanoTime();
+            stats.requestStarted(target);
+            AtomicReference<Attempt> answer = new AtomicReference<>();
+            return send(hedgeUrl, headers, true)
+                    .doOnNext(answer::set)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            stats.requestAbandoned(target);
+                            return;
+                        }
+                        Attempt attempt = answer.get();
+                        stats.requestFinished(target, System.nanoTime() - started,
+                                attempt == null || attempt.response().status().code() >= 500);
+                    });
+        });
+    }
+
+    private ServiceInstance pick(String serviceId, List<ServiceInstance> instances) {
+        if (clientFactory.getInstance(serviceId) instanceof LatencyAwareLoadBalancer latencyAware) {
+            return latencyAware.choose(instances).getServer();
+        }
+        return instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+    }
+
+    private Mono<Attempt> send(URI url, DefaultHttpHeaders headers, boolean hedge) {
+        return httpClient
+                .headers(h -> h.add(headers))
+                .request(io.netty.handler.codec.http.HttpMethod.GET)
+                .uri(url)
+                .responseConnection((response, connection) -> Mono.just(new Attempt(response, connection, hedge)))
+                .next();
+    }
+
+    // The same request headers NettyRoutingFilter would send
+    private DefaultHttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(headersFilters(), exchange);
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        filtered.forEach(headers::set);
+        if (!exchange.getAttributeOrDefault(ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            headers.remove(HttpHeaders.HOST);
+        }
+        return headers;
+    }
+
+    private Mono<Void> write(Attempt attempt, ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(attempt.response().status().code()));
+
+        HttpHeaders upstream = new HttpHeaders();
+        attempt.response().responseHeaders().forEach(header -> upstream.add(header.getKey(), header.getValue()));
+        String contentType = upstream.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters(), upstream, exchange, HttpHeadersFilter.Type.RESPONSE);
+        if (filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        response.getHeaders().putAll(filtered);
+
+        Connection connection = attempt.connection();
+        return response.writeWith(connection.inbound().receive().retain().map(buffer -> wrap(buffer, response)))
+                .doOnCancel(connection::dispose);
+    }
+
+    // As NettyWriteResponseFilter does: Netty buffers on the server, copies for mock responses in tests
+    private static DataBuffer wrap(ByteBuf buffer, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        if (bufferFactory instanceof NettyDataBufferFactory netty) {
+            return netty.wrap(buffer);
+        }
+        if (bufferFactory instanceof DefaultDataBufferFactory copying) {
+            DataBuffer copy = copying.allocateBuffer(buffer.readableBytes());
+            copy.write(buffer.nioBuffer());
+            buffer.release();
+            return copy;
+        }
+        throw new IllegalArgumentException("Unknown DataBufferFactory type " + bufferFactory.getClass());
+    }
+
+    private List<HttpHeadersFilter> headersFilters() {
+        return headersFilters.getIfAvailable(List::of);
+    }
+
+    private record Attempt(HttpClientResponse response, Connection connection, boolean hedge) {
+
+        void close() {
+            connection.dispose();
+        }
+    }
+
+    public static class Config {
+
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(5);
+        private int minSamples = 100;
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package com.todo.gateway_service.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.todo.gateway_service.util.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -15,33 +12,43 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.UUID;
 
 @Component
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
+    // Per-request lines are DEBUG only; AccessLogFilter records every request off the event loop
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Verified username for later filters; unlike the X-User header it cannot come from the client
+    public static final String AUTHENTICATED_USER_ATTR = JwtAuthFilter.class.getName() + ".authenticatedUser";
+    // The X-Request-Id sent downstream, so the access log line can be matched with service logs
+    public static final String REQUEST_ID_ATTR = JwtAuthFilter.class.getName() + ".requestId";
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
         String requestId = generateOrGetRequestId(exchange);
+        exchange.getAttributes().put(REQUEST_ID_ATTR, requestId);
 
         // ALWAYS inject X-Request-Id (even for public routes)
         ServerWebExchange.Builder exchangeBuilder = exchange.mutate()
                 .request(r -> r.headers(headers -> headers.set("X-Request-Id", requestId)));
 
+        if (isInternalRoute(path)) {
+            log.debug("INTERNAL ROUTE blocked → {} {} | Request-ID: {}",
+                    exchange.getRequest().getMethod(), path, requestId);
+            return onError(exchange, "Not found", HttpStatus.NOT_FOUND);
+        }
+
         if (isPublicRoute(path)) {
-            log.info("PUBLIC ROUTE → {} {} | Request-ID: {}",
+            log.debug("PUBLIC ROUTE → {} {} | Request-ID: {}",
                     exchange.getRequest().getMethod(), path, requestId);
             return chain.filter(exchangeBuilder.build());
         }
@@ -59,6 +66,12 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         return newId;
     }
 
+    // Service-to-service lookups (todo-service calls AUTH-SERVICE directly through discovery);
+    // through the gateway they would let anyone enumerate usernames in batches
+    private boolean isInternalRoute(String path) {
+        return path.equals("/auth/exists") || path.startsWith("/auth/exists/");
+    }
+
     private boolean isPublicRoute(String path) {
         return path.startsWith("/auth")
                 || path.startsWith("/actuator")
@@ -76,24 +89,21 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Missing Authorization header | Request-ID: {}", requestId);
+            log.debug("Missing Authorization header | Request-ID: {}", requestId);
             return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
         }
 
         String token = authHeader.substring(7);
 
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            // Cached per token: repeat requests skip the HMAC check and claims parsing
+            JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
 
-            String username = claims.getSubject();
-            String roles = claims.get("roles", String.class);
+            String username = verified.subject();
+            String roles = verified.roles();
 
             if (username == null || username.isBlank()) {
-                log.warn("JWT has no subject (username) | Request-ID: {}", requestId);
+                log.debug("JWT has no subject (username) | Request-ID: {}", requestId);
                 return onError(exchange, "Invalid JWT: missing username", HttpStatus.UNAUTHORIZED);
             }
 
@@ -105,21 +115,22 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
                         h.set("X-Request-Id", requestId);
                     }))
                     .build();
+            finalExchange.getAttributes().put(AUTHENTICATED_USER_ATTR, username);
 
-            log.info("AUTHENTICATED → User: {} | Method: {} {} | Request-ID: {}",
+            log.debug("AUTHENTICATED → User: {} | Method: {} {} | Request-ID: {}",
                     username, exchange.getRequest().getMethod(),
                     exchange.getRequest().getURI().getPath(), requestId);
 
             return chain.filter(finalExchange);
 
         } catch (Exception e) {
-            log.error("JWT Validation failed | Request-ID: {} | Error: {}", requestId, e.getMessage());
+            log.debug("JWT Validation failed | Request-ID: {} | Error: {}", requestId, e.getMessage());
             return onError(exchange, "Invalid or expired JWT", HttpStatus.UNAUTHORIZED);
         }
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
-        log.warn("ACCESS DENIED → {} | Status: {} | Path: {}",
+        log.debug("ACCESS DENIED → {} | Status: {} | Path: {}",
                 message, status.value(), exchange.getRequest().getURI().getPath());
         exchange.getResponse().setStatusCode(status);
         exchange.getResponse().getHeaders().add("Content-Type", "application/json");
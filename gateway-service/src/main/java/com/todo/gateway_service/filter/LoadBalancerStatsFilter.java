@@ -0,0 +1,64 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.loadbalancer.InstanceStats;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Runs right after ReactiveLoadBalancerClientFilter and reports every request to the instance
+ * it picked (in flight, then latency and outcome) to InstanceStats. doFinally also covers
+ * requests the client abandons, which the load balancer lifecycle callbacks miss, so in-flight
+ * counts cannot leak.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    // Set by a filter that gave up on the picked instance and answered from another (a winning
+    // hedge): the exchange then ends without that instance's response, so it is counted as abandoned
+    public static final String ABANDONED_ATTR = LoadBalancerStatsFilter.class.getName() + ".abandoned";
+
+    private final InstanceStats stats;
+
+    public LoadBalancerStatsFilter(InstanceStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = chosen.getServer();
+        long started = System.nanoTime();
+        stats.requestStarted(instance);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL || exchange.getAttributeOrDefault(ABANDONED_ATTR, false)) {
+                        // Cut short by the client or overtaken by a hedge, so the elapsed time says
+                        // nothing about the instance
+                        stats.requestAbandoned(instance);
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    stats.requestFinished(instance, System.nanoTime() - started, failed);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,181 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.ratelimit.TokenBucketStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user and per-IP token buckets, checked right after JwtAuthFilter. A request over either
+ * limit gets 429 with Retry-After and never reaches the downstream service.
+ * <p>
+ * Buckets are per route. The defaults below can be overridden per route through route metadata
+ * in the config server, for example:
+ * <pre>
+ * spring.cloud.gateway.routes[0].metadata:
+ *   rate-limit-user-per-second: 10
+ *   rate-limit-user-burst: 20
+ *   rate-limit-ip-per-second: 50
+ *   rate-limit-ip-burst: 100
+ * </pre>
+ * A rate of 0 turns that limit off for the route. The user is the one JwtAuthFilter verified;
+ * public routes only have the IP limit. The user's token is put back when the IP limit then
+ * turns the request away.
+ * <p>
+ * Rejections are counted in gateway.rate_limit.rejected, tagged limit=user|ip, and logged only
+ * at debug: a client being throttled can produce them faster than a log appender should run on
+ * the event loop.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final byte[] TOO_MANY_REQUESTS = "{ \"error\": \"Too many requests\" }".getBytes();
+
+    private final boolean enabled;
+    private final double userPerSecond;
+    private final int userBurst;
+    private final double ipPerSecond;
+    private final int ipBurst;
+    private final TokenBucketStore buckets = new TokenBucketStore(System::nanoTime);
+    private final ScheduledExecutorService evictor;
+    private final Counter userRejections;
+    private final Counter ipRejections;
+
+    public RateLimitFilter(@Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${gateway.rate-limit.user-per-second:20}") double userPerSecond,
+                           @Value("${gateway.rate-limit.user-burst:40}") int userBurst,
+                           @Value("${gateway.rate-limit.ip-per-second:100}") double ipPerSecond,
+                           @Value("${gateway.rate-limit.ip-burst:200}") int ipBurst,
+                           @Value("${gateway.rate-limit.evict-interval:30s}") Duration evictInterval,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.userPerSecond = userPerSecond;
+        this.userBurst = userBurst;
+        this.ipPerSecond = ipPerSecond;
+        this.ipBurst = ipBurst;
+        this.userRejections = rejections(meterRegistry, "user");
+        this.ipRejections = rejections(meterRegistry, "ip");
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = evictInterval.toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdle, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+        Map<String, Object> metadata = route != null ? route.getMetadata() : Map.of();
+
+        String user = exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR);
+        String userKey = routeId + "|user|" + user;
+        TokenBucketStore.Limit userLimit = user != null ? limit(metadata, "user", userPerSecond, userBurst) : null;
+        if (userLimit != null) {
+            long waitNanos = buckets.tryAcquire(userKey, userLimit);
+            if (waitNanos > 0) {
+                userRejections.increment();
+                return tooManyRequests(exchange, waitNanos);
+            }
+        }
+
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        TokenBucketStore.Limit ipLimit = remote != null ? limit(metadata, "ip", ipPerSecond, ipBurst) : null;
+        if (ipLimit != null) {
+            long waitNanos = buckets.tryAcquire(routeId + "|ip|" + remote.getAddress().getHostAddress(), ipLimit);
+            if (waitNanos > 0) {
+                if (userLimit != null) {
+                    buckets.release(userKey, userLimit);
+                }
+                ipRejections.increment();
+                return tooManyRequests(exchange, waitNanos);
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    // Null when the route turns that limit off
+    private static TokenBucketStore.Limit limit(Map<String, Object> metadata, String dimension,
+                                                double defaultRate, int defaultBurst) {
+        double perSecond = number(metadata.get("rate-limit-" + dimension + "-per-second"), defaultRate);
+        if (perSecond <= 0) {
+            return null;
+        }
+        int burst = (int) number(metadata.get("rate-limit-" + dimension + "-burst"), defaultBurst);
+        return TokenBucketStore.Limit.of(perSecond, burst);
+    }
+
+    private Mono<Void> tooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("RATE LIMITED → {} {} | Retry-After: {}s",
+                exchange.getRequest().getMethod(), exchange.getRequest().getURI().getPath(), retryAfterSeconds);
+
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().add(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        exchange.getResponse().getHeaders().add("Content-Type", "application/json");
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse()
+                .bufferFactory().wrap(TOO_MANY_REQUESTS)));
+    }
+
+    private void evictIdle() {
+        int evicted = buckets.evictIdle();
+        log.debug("Evicted idle rate-limit buckets | evicted={} | remaining={}", evicted, buckets.size());
+    }
+
+    private static Counter rejections(MeterRegistry registry, String limit) {
+        return Counter.builder("gateway.rate_limit.rejected")
+                .description("Requests answered with 429 by the gateway rate limiter")
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    // Route metadata from YAML arrives as Integer, Double or String
+    private static double number(Object value, double fallback) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return Double.parseDouble(text.trim());
+        }
+        return fallback;
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    @Override
+    public int getOrder() {
+        return -99; // Right after JwtAuthFilter, before any routing work
+    }
+}
@@ -0,0 +1,55 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.cache.ResponseSnapshot;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Turns a 304 to the gateway's own conditional request into the stored response; any other
+// status passes through untouched
+final class RevalidatingResponse extends ServerHttpResponseDecorator {
+
+    private final ResponseSnapshot cached;
+    private final Runnable onServed;
+
+    RevalidatingResponse(ServerHttpResponse delegate, ResponseSnapshot cached, Runnable onServed) {
+        super(delegate);
+        this.cached = cached;
+        this.onServed = onServed;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!notModified()) {
+            return super.writeWith(body);
+        }
+        return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(this::serveCached));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        if (!notModified()) {
+            return super.writeAndFlushWith(body);
+        }
+        return writeWith(Flux.from(body).flatMap(Flux::from));
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        return notModified() ? serveCached() : super.setComplete();
+    }
+
+    private Mono<Void> serveCached() {
+        onServed.run();
+        return cached.writeTo(getDelegate());
+    }
+
+    private boolean notModified() {
+        return getStatusCode() != null && getStatusCode().value() == HttpStatus.NOT_MODIFIED.value();
+    }
+}
@@ -0,0 +1,244 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.cache.ResponseSnapshot;
+import com.todo.gateway_service.cache.UserResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opt-in route filter ({@code filters: - UserResponseCache}) that answers authenticated GETs
+ * from UserResponseCache for a few seconds. Entries are keyed by the verified user, path,
+ * query and Accept; a matching If-None-Match on a hit gets 304.
+ * <p>
+ * Only complete 200 responses up to maxBodySize without Set-Cookie are stored, and only when
+ * their Cache-Control allows a shared cache to: no-store and private are never stored, and a
+ * no-cache response is stored only with an ETag. Entries from no-cache responses are
+ * revalidated on every hit by forwarding the request with If-None-Match set to the stored
+ * ETag; a 304 from downstream is answered with the stored body, anything else replaces it.
+ * Requests with Cache-Control: no-cache or no-store skip the cache entirely.
+ * <p>
+ * Any response on the route carrying X-Cache-Invalidate-User (todo-service sets it on every
+ * write) invalidates that user's entries before it reaches the client, and the header is
+ * removed. The write routes need this filter as well, so list it on the route, ahead of
+ * Coalesce where both are used.
+ * <p>
+ * gateway.response_cache.requests is tagged result=hit|revalidated|miss|bypass, and
+ * gateway.response_cache.bytes_saved counts the body bytes served from the cache instead of
+ * being sent by downstream.
+ */
+@Component
+public class UserResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<UserResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String INVALIDATE_USER_HEADER = "X-Cache-Invalidate-User";
+
+    private final UserResponseCache cache;
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter bytesSaved;
+
+    public UserResponseCacheGatewayFilterFactory(UserResponseCache cache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.hits = counter(meterRegistry, "hit");
+        this.revalidations = counter(meterRegistry, "revalidated");
+        this.misses = counter(meterRegistry, "miss");
+        this.bypasses = counter(meterRegistry, "bypass");
+        this.bytesSaved = Counter.builder("gateway.response_cache.bytes_saved")
+                .description("Response body bytes served from the gateway cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        int maxBodyBytes = (int) config.getMaxBodySize().toBytes();
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> {
+                String invalidated = response.getHeaders().getFirst(INVALIDATE_USER_HEADER);
+                if (invalidated != null) {
+                    cache.invalidate(invalidated);
+                    response.getHeaders().remove(INVALIDATE_USER_HEADER);
+                }
+                return Mono.empty();
+            });
+
+            String user = exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || user == null) {
+                return chain.filter(exchange);
+            }
+            if (refusesCache(exchange.getRequest().getHeaders().getCacheControl())) {
+                bypasses.increment();
+                return chain.filter(exchange);
+            }
+
+            String key = key(exchange);
+            ResponseSnapshot cached = cache.get(user, key);
+            if (cached != null && !hasDirective(cached.headers().getCacheControl(), "no-cache")) {
+                hits.increment();
+                bytesSaved.increment(cached.body().length);
+                return answer(cached, exchange);
+            }
+            if (cached != null) {
+                revalidations.increment();
+                return revalidate(user, key, cached, exchange, chain, config.getTtl(), maxBodyBytes);
+            }
+            misses.increment();
+            return fetch(user, key, exchange, chain, config.getTtl(), maxBodyBytes);
+        };
+        // Like ModifyResponseBody: wrap the response before NettyWriteResponseFilter writes to it
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> fetch(String user, String key, ServerWebExchange exchange, GatewayFilterChain chain,
+                             Duration ttl, int maxBodyBytes,
+                             Function<ServerHttpResponse, ServerHttpResponse> decorator) {
+        long startedAt = System.nanoTime();
+        CapturingResponse capture = new CapturingResponse(exchange.getResponse(), maxBodyBytes);
+        return chain.filter(exchange.mutate().response(decorator.apply(capture)).build())
+                .doFinally(signal -> {
+                    ResponseSnapshot response = signal == SignalType.ON_COMPLETE ? capture.captured() : null;
+                    if (response != null && isStorable(response)) {
+                        cache.put(user, key, startedAt, response, ttl);
+                    }
+                });
+    }
+
+    private Mono<Void> revalidate(String user, String key, ResponseSnapshot cached, ServerWebExchange exchange,
+                                  GatewayFilterChain chain, Duration ttl, int maxBodyBytes) {
+        String etag = cached.headers().getETag();
+        if (matches(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH), etag)) {
+            // The client holds the stored version too, so downstream's answer (304 or a newer 200) goes to it as is
+            return fetch(user, key, exchange, chain, ttl, maxBodyBytes);
+        }
+        ServerWebExchange conditional = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, etag)))
+                .build();
+        return fetch(user, key, conditional, chain, ttl, maxBodyBytes, response -> new RevalidatingResponse(
+                response, cached, () -> bytesSaved.increment(cached.body().length)));
+    }
+
+    private Mono<Void> fetch(String user, String key, ServerWebExchange exchange, GatewayFilterChain chain,
+                             Duration ttl, int maxBodyBytes) {
+        return fetch(user, key, exchange, chain, ttl, maxBodyBytes, response -> response);
+    }
+
+    private static Mono<Void> answer(ResponseSnapshot cached, ServerWebExchange exchange) {
+        String etag = cached.headers().getETag();
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || !matches(ifNoneMatch, etag)) {
+            return cached.writeTo(exchange.getResponse());
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(etag);
+        copy(cached.headers(), response.getHeaders(), HttpHeaders.CACHE_CONTROL);
+        copy(cached.headers(), response.getHeaders(), HttpHeaders.VARY);
+        return response.setComplete();
+    }
+
+    // Weak comparison (RFC 9110 13.1.2), as todo-service does: W/ prefixes are ignored, "*" matches anything
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // RFC 9111 3 and 5.2.2: this is a shared cache, so private responses are not stored either
+    private static boolean isStorable(ResponseSnapshot response) {
+        String cacheControl = response.headers().getCacheControl();
+        return response.status().value() == HttpStatus.OK.value()
+                && !response.headers().containsKey(HttpHeaders.SET_COOKIE)
+                && !hasDirective(cacheControl, "no-store")
+                && !hasDirective(cacheControl, "private")
+                && (!hasDirective(cacheControl, "no-cache") || response.headers().getETag() != null);
+    }
+
+    private static boolean refusesCache(String cacheControl) {
+        return hasDirective(cacheControl, "no-cache") || hasDirective(cacheControl, "no-store");
+    }
+
+    // Directive names only; qualified forms such as private="Set-Cookie" count as the whole directive
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            String name = part.trim();
+            int value = name.indexOf('=');
+            if ((value < 0 ? name : name.substring(0, value).trim()).equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copy(HttpHeaders from, HttpHeaders to, String name) {
+        if (from.containsKey(name) && !to.containsKey(name)) {
+            to.put(name, from.get(name));
+        }
+    }
+
+    private static String key(ServerWebExchange exchange) {
+        return exchange.getRequest().getURI().getRawPath()
+                + '\n' + exchange.getRequest().getURI().getRawQuery()
+                + '\n' + exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.response_cache.requests")
+                .description("GET requests through the UserResponseCache filter")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(5);
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.todo.gateway_service.hedge;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global allowance for hedged requests, shared by every route with the Hedge filter. Each
+ * hedgeable request deposits gateway.hedging.budget-percent of a token and each hedge spends a
+ * whole one, so hedges can never exceed that share of traffic (plus gateway.hedging.budget-burst
+ * saved up while it was quiet). When everything is slow, the budget runs dry instead of
+ * doubling the load on an already overloaded service.
+ */
+@Component
+public class HedgeBudget {
+
+    private static final long TOKEN = 1_000_000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(@Value("${gateway.hedging.budget-percent:5}") double percent,
+                       @Value("${gateway.hedging.budget-burst:20}") int burst) {
+        this.deposit = (long) (TOKEN * percent / 100);
+        this.maxBalance = TOKEN * burst;
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + deposit));
+    }
+
+    /** Spends one token if there is one. */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
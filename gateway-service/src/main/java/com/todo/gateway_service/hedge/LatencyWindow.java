@@ -0,0 +1,55 @@
+package com.todo.gateway_service.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent response times of one route, in a fixed ring, and a percentile over them.
+ * Recording is one atomic increment and an array write; the percentile is recomputed from a
+ * sorted copy at most every refreshNanos, so reading it is usually two volatile reads.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final long refreshNanos;
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long value;
+    private volatile long computedAt;
+    private volatile boolean computed;
+
+    public LatencyWindow(int size, double percentile, int minSamples, long refreshNanos) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.minSamples = Math.min(size, minSamples);
+        this.refreshNanos = refreshNanos;
+    }
+
+    public void record(long nanos) {
+        samples[(int) (recorded.getAndIncrement() % samples.length)] = nanos;
+    }
+
+    /**
+     * The percentile of the window in nanoseconds, or -1 until minSamples responses have been
+     * recorded.
+     */
+    public long percentile(long now) {
+        if (computed && now - computedAt < refreshNanos) {
+            return value;
+        }
+        int filled = (int) Math.min(recorded.get(), samples.length);
+        if (filled < minSamples || filled == 0) {
+            // Not cached, so hedging starts as soon as the window has enough samples
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, filled);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * filled) - 1;
+        long result = sorted[Math.max(0, Math.min(filled - 1, rank))];
+        value = result;
+        computedAt = now;
+        computed = true;
+        return result;
+    }
+}
@@ -0,0 +1,164 @@
+package com.todo.gateway_service.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency and load per downstream instance, fed by LoadBalancerStatsFilter and read by
+ * LatencyAwareLoadBalancer.
+ * <p>
+ * Latency is a peak-sensitive EWMA: a response slower than the current estimate replaces it at
+ * once, faster ones pull it down with a weight that decays over gateway.load-balancer.decay-time.
+ * An instance that starts pausing is therefore avoided from its first slow response and comes
+ * back gradually. Failures (errors and 5xx) count as at least gateway.load-balancer.failure-penalty.
+ * <p>
+ * An instance's weight ramps linearly from 0.1 to 1 over gateway.load-balancer.slow-start after
+ * the gateway first sees it, so a freshly registered (cold) instance gets a growing share rather
+ * than a full one. Stats of instances unused for gateway.load-balancer.idle-eviction are dropped.
+ * <p>
+ * Per instance gauges, tagged service and instance (host:port): gateway.loadbalancer.latency,
+ * gateway.loadbalancer.in_flight and gateway.loadbalancer.weight.
+ */
+@Component
+public class InstanceStats {
+
+    private static final double MIN_WEIGHT = 0.1;
+
+    private final long decayNanos;
+    private final long slowStartNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Instance> instances;
+
+    @Autowired
+    public InstanceStats(@Value("${gateway.load-balancer.decay-time:10s}") Duration decayTime,
+                         @Value("${gateway.load-balancer.slow-start:30s}") Duration slowStart,
+                         @Value("${gateway.load-balancer.failure-penalty:1s}") Duration failurePenalty,
+                         @Value("${gateway.load-balancer.idle-eviction:10m}") Duration idleEviction,
+                         MeterRegistry meterRegistry) {
+        this(decayTime, slowStart, failurePenalty, idleEviction, meterRegistry, System::nanoTime);
+    }
+
+    InstanceStats(Duration decayTime, Duration slowStart, Duration failurePenalty, Duration idleEviction,
+                  MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.decayNanos = Math.max(1, decayTime.toNanos());
+        this.slowStartNanos = slowStart.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        this.instances = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .removalListener((String key, Instance instance, RemovalCause cause) -> {
+                    if (instance != null) {
+                        instance.meters.forEach(meterRegistry::remove);
+                    }
+                })
+                .build();
+    }
+
+    public void requestStarted(ServiceInstance instance) {
+        instance(instance).inFlight.incrementAndGet();
+    }
+
+    public void requestFinished(ServiceInstance instance, long latencyNanos, boolean failed) {
+        Instance stats = instance(instance);
+        stats.inFlight.decrementAndGet();
+        stats.observe(failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos, nanoClock.getAsLong());
+    }
+
+    public void requestAbandoned(ServiceInstance instance) {
+        instance(instance).inFlight.decrementAndGet();
+    }
+
+    /**
+     * The instance's current estimate, or NaN before its first response; LatencyAwareLoadBalancer
+     * then substitutes the other candidate's.
+     */
+    double latencyNanos(ServiceInstance instance) {
+        return instance(instance).latency();
+    }
+
+    int inFlight(ServiceInstance instance) {
+        return instance(instance).inFlight.get();
+    }
+
+    double weight(ServiceInstance instance) {
+        return instance(instance).weight(nanoClock.getAsLong());
+    }
+
+    private Instance instance(ServiceInstance instance) {
+        String address = instance.getHost() + ":" + instance.getPort();
+        return instances.get(instance.getServiceId() + "|" + address,
+                key -> register(new Instance(nanoClock.getAsLong()), instance.getServiceId(), address));
+    }
+
+    private Instance register(Instance instance, String serviceId, String address) {
+        Tags tags = Tags.of("service", serviceId, "instance", address);
+        instance.meters = List.of(
+                Gauge.builder("gateway.loadbalancer.latency", instance, i -> i.latency() / 1_000_000)
+                        .description("Peak EWMA of response time per downstream instance")
+                        .baseUnit("milliseconds")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.in_flight", instance, i -> i.inFlight.get())
+                        .description("Requests currently outstanding per downstream instance")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.weight", instance, i -> i.weight(nanoClock.getAsLong()))
+                        .description("Slow-start weight per downstream instance (1 once warm)")
+                        .tags(tags)
+                        .register(meterRegistry));
+        return instance;
+    }
+
+    private final class Instance {
+
+        private final long firstSeen;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private List<Meter> meters = List.of();
+        // Guarded by this
+        private double ewma = Double.NaN;
+        private long lastObserved;
+
+        private Instance(long firstSeen) {
+            this.firstSeen = firstSeen;
+        }
+
+        private synchronized void observe(long latencyNanos, long now) {
+            if (Double.isNaN(ewma) || latencyNanos > ewma) {
+                ewma = latencyNanos;
+            } else {
+                double keep = Math.exp(-(double) Math.max(0, now - lastObserved) / decayNanos);
+                ewma = ewma * keep + latencyNanos * (1 - keep);
+            }
+            lastObserved = now;
+        }
+
+        private synchronized double latency() {
+            return ewma;
+        }
+
+        private double weight(long now) {
+            if (slowStartNanos <= 0) {
+                return 1;
+            }
+            double warmed = (double) (now - firstSeen) / slowStartNanos;
+            return Math.max(MIN_WEIGHT, Math.min(1, warmed));
+        }
+    }
+}
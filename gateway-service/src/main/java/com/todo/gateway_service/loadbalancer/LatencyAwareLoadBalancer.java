@@ -0,0 +1,88 @@
+package com.todo.gateway_service.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices over the instances Eureka lists: two distinct instances are drawn at
+ * random and the one with the lower cost wins, where cost is latency x (in-flight + 1) / weight
+ * from InstanceStats. A slow or paused instance loses nearly every comparison it is drawn into
+ * but is still drawn, so its latency keeps being measured; and no single instance is a hot spot
+ * the way "always pick the fastest" would make it.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final InstanceStats stats;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+                                    InstanceStats stats) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    /** Picks among the given instances; also used to pick the target of a hedged request. */
+    public Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+
+        double latencyA = stats.latencyNanos(a);
+        double latencyB = stats.latencyNanos(b);
+        // An instance without responses yet is assumed to be as fast as the other one
+        if (Double.isNaN(latencyA)) {
+            latencyA = Double.isNaN(latencyB) ? 1 : latencyB;
+        }
+        if (Double.isNaN(latencyB)) {
+            latencyB = latencyA;
+        }
+        return new DefaultResponse(cost(a, latencyA) <= cost(b, latencyB) ? a : b);
+    }
+
+    private double cost(ServiceInstance instance, double latency) {
+        return Math.max(latency, 1) * (stats.inFlight(instance) + 1) / stats.weight(instance);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyAwareLoadBalancer[" + serviceId + "]";
+    }
+}
@@ -0,0 +1,90 @@
+package com.todo.gateway_service.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, one AtomicLong each. A bucket is stored as its "theoretical
+ * arrival time" (GCRA): the instant at which it would be full again. Taking a token is a single
+ * CAS on that value, so there are no locks on the request path. The map is a ConcurrentHashMap,
+ * which is itself striped by bin, so unrelated keys do not contend.
+ * <p>
+ * A bucket whose arrival time has passed is full, and is indistinguishable from one that does
+ * not exist. evictIdle() drops those, keeping the store sized to the currently active keys.
+ */
+public class TokenBucketStore {
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    public TokenBucketStore(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the key's bucket. Returns 0 when it was available, otherwise the
+     * nanoseconds until the next one is (nothing is taken).
+     */
+    public long tryAcquire(String key, Limit limit) {
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            AtomicLong created = new AtomicLong(nanoClock.getAsLong());
+            arrival = buckets.putIfAbsent(key, created);
+            if (arrival == null) {
+                arrival = created;
+            }
+        }
+
+        while (true) {
+            long current = arrival.get();
+            // Read after the bucket: a clock read before another thread's CAS would look like the past
+            long now = nanoClock.getAsLong();
+            long base = current - now > 0 ? current : now;
+            long wait = base - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, base + limit.intervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Puts back a token taken by tryAcquire, for a request that a later check turned away.
+     */
+    public void release(String key, Limit limit) {
+        AtomicLong arrival = buckets.get(key);
+        if (arrival != null) {
+            // Going below the current time only makes the bucket full, as tryAcquire reads it
+            arrival.addAndGet(-limit.intervalNanos());
+        }
+    }
+
+    /**
+     * Removes full buckets. A request racing the removal may be granted one extra token.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> arrival.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Refill rate and burst size, as the GCRA emission interval and burst tolerance.
+     */
+    public record Limit(long intervalNanos, long toleranceNanos) {
+
+        public static Limit of(double perSecond, int burst) {
+            long interval = (long) (1_000_000_000L / perSecond);
+            return new Limit(interval, interval * (Math.max(burst, 1) - 1));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.todo.gateway_service.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void errorsAreAlwaysSampledAndSuccessesAtTheirRate() {
+        AccessLogWriter writer = writer(0.0, 8);
+        assertFalse(writer.sampled(200));
+        assertFalse(writer.sampled(304));
+        assertTrue(writer.sampled(401));
+        assertTrue(writer.sampled(503));
+    }
+
+    @Test
+    void eventsAreWrittenAsJsonLinesInBatches() throws InterruptedException {
+        AccessLogWriter writer = writer(1.0, 8);
+        writer.offer(event("/todos", 200, "alice"));
+        writer.offer(event("/todos/\"7\"", 404, null));
+        writer.destroy();
+
+        List<String> lines = batches.stream().flatMap(batch -> batch.lines()).toList();
+        assertEquals(2, lines.size());
+        assertEquals("{\"ts\":\"2026-01-01T00:00:00Z\",\"requestId\":\"r1\",\"method\":\"GET\",\"path\":\"/todos\","
+                + "\"status\":200,\"durationMs\":1.5,\"user\":\"alice\",\"clientIp\":\"10.0.0.1\",\"route\":\"todo\"}",
+                lines.get(0));
+        assertTrue(lines.get(1).contains("\"path\":\"/todos/\\\"7\\\"\",\"status\":404"));
+        assertEquals(2.0, meterRegistry.get("gateway.access_log.written").counter().count());
+    }
+
+    @Test
+    void fullBufferDropsAndCounts() {
+        AccessLogWriter writer = new AccessLogWriter(false, 1.0, 1.0, 1.0, 4, 8, Duration.ofMillis(10),
+                meterRegistry, batches::add);
+        for (int i = 0; i < 10; i++) {
+            writer.offer(event("/todos", 500, "alice"));
+        }
+        assertEquals(6.0, meterRegistry.get("gateway.access_log.dropped").counter().count());
+    }
+
+    private AccessLogWriter writer(double successRate, int bufferSize) {
+        return new AccessLogWriter(true, successRate, 1.0, 1.0, bufferSize, 256, Duration.ofMillis(10),
+                meterRegistry, batches::add);
+    }
+
+    private static AccessLogEvent event(String path, int status, String user) {
+        return new AccessLogEvent(1767225600000L, "r1", "GET", path, status, 1_500_000, user, "10.0.0.1", "todo");
+    }
+}
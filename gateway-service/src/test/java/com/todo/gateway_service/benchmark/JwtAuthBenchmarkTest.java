@@ -0,0 +1,122 @@
+package com.todo.gateway_service.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.todo.gateway_service.filter.JwtAuthFilter;
+import com.todo.gateway_service.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthFilter's authenticated path (JMH, run with -Pbenchmark):
+ * <ul>
+ *   <li>hotToken: the same bearer token on every request, answered from the verified-token cache;</li>
+ *   <li>coldToken: a token the cache has not seen (65,536 distinct tokens cycled through a
+ *   1,024-entry cache), so every request pays HMAC verify and claims parsing;</li>
+ *   <li>keyAndParserPerRequest: the previous filter body, which rebuilt the key and parser for
+ *   every request, for reference.</li>
+ * </ul>
+ * Each filter call builds a mock exchange and runs a no-op chain; that overhead is in all three.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+    private static final int COLD_TOKENS = 65_536;
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    private JwtAuthFilter filter;
+    private String hotToken;
+    private String[] coldTokens;
+    private int nextCold;
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmarkTest.class.getName() + ".")
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("ROOT").setLevel(Level.WARN);
+
+        filter = new JwtAuthFilter(new JwtUtil(SECRET, 1_024, Duration.ofMinutes(5)));
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        hotToken = token("bench-user", expiresAt);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = token("bench-user-" + i, expiresAt);
+        }
+    }
+
+    @Benchmark
+    public void hotToken() {
+        filter.filter(exchange(hotToken), CHAIN).block();
+    }
+
+    @Benchmark
+    public void coldToken() {
+        String token = coldTokens[nextCold++ & (COLD_TOKENS - 1)];
+        filter.filter(exchange(token), CHAIN).block();
+    }
+
+    @Benchmark
+    public String keyAndParserPerRequest() {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(hotToken)
+                .getBody();
+        return claims.getSubject() + claims.get("roles", String.class);
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/todos")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private static String token(String subject, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("roles", "ROLE_USER")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
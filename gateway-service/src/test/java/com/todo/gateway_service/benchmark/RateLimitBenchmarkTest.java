@@ -0,0 +1,106 @@
+package com.todo.gateway_service.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.todo.gateway_service.filter.JwtAuthFilter;
+import com.todo.gateway_service.filter.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter under contention (JMH, run with -Pbenchmark), 4 threads:
+ * <ul>
+ *   <li>sameUser: every thread hits one user's bucket, so every request CASes the same AtomicLong;</li>
+ *   <li>distinctUsers: random users out of 100,000, which also grows the store to that size.</li>
+ * </ul>
+ * Limits are set high enough that every request is let through.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmarkTest {
+
+    private static final int USERS = 100_000;
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("10.0.0.1", 40000);
+
+    private RateLimitFilter filter;
+    private Route route;
+    private String[] users;
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitBenchmarkTest.class.getName() + ".")
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("ROOT").setLevel(Level.WARN);
+
+        filter = new RateLimitFilter(true, 1_000_000_000, 1_000_000, 0, 0, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+        route = Route.async().id("todo-service").uri("lb://TODO-SERVICE").predicate(exchange -> true).build();
+        users = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = "user-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        filter.destroy();
+    }
+
+    @Benchmark
+    public void sameUser() {
+        filter.filter(exchange(users[0]), CHAIN).block();
+    }
+
+    @Benchmark
+    public void distinctUsers() {
+        filter.filter(exchange(users[ThreadLocalRandom.current().nextInt(USERS)]), CHAIN).block();
+    }
+
+    private MockServerWebExchange exchange(String user) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/todos")
+                .remoteAddress(CLIENT));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(JwtAuthFilter.AUTHENTICATED_USER_ATTR, user);
+        return exchange;
+    }
+}
@@ -0,0 +1,103 @@
+package com.todo.gateway_service.bff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A stub todo-service on a real port; the list echoes what it was called with
+class DashboardAggregatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer todoService;
+
+    @AfterEach
+    void stop() {
+        todoService.disposeNow();
+    }
+
+    @Test
+    void branchesAreMergedIntoOneBody() throws Exception {
+        start(Duration.ZERO, 200);
+
+        long started = System.nanoTime();
+        Dashboard dashboard = aggregator().load(identity(), "status=pending&search=a%26b").block();
+
+        JsonNode body = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(dashboard));
+        assertEquals("alice", body.at("/todos/user").asText());
+        assertEquals("status=pending&search=a%26b", body.at("/todos/query").asText());
+        assertEquals(3, body.at("/summary/total").asLong());
+        assertTrue(body.path("errors").isMissingNode());
+        assertTrue(System.nanoTime() - started < Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    void slowBranchIsLeftOutAfterItsTimeout() {
+        start(Duration.ofSeconds(2), 200);
+
+        long started = System.nanoTime();
+        Dashboard dashboard = aggregator().load(identity(), null).block();
+
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(1).toNanos());
+        assertTrue(dashboard.todos().contains("alice"));
+        assertNull(dashboard.summary());
+        assertEquals(Map.of("summary", "timeout"), dashboard.errors());
+        assertEquals(1.0, meterRegistry.get("gateway.dashboard.branches")
+                .tags("branch", "summary", "outcome", "timeout").counter().count());
+    }
+
+    @Test
+    void failedBranchReportsTheStatus() {
+        start(Duration.ZERO, 503);
+
+        Dashboard dashboard = aggregator().load(identity(), null).block();
+
+        assertNull(dashboard.summary());
+        assertEquals(Map.of("summary", "status 503"), dashboard.errors());
+    }
+
+    private DashboardAggregator aggregator() {
+        return new DashboardAggregator(WebClient.create(), "http://localhost:" + todoService.port(),
+                Duration.ofMillis(300), meterRegistry);
+    }
+
+    private static HttpHeaders identity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-User", "alice");
+        headers.set("X-Roles", "ROLE_USER");
+        return headers;
+    }
+
+    private void start(Duration summaryLatency, int summaryStatus) {
+        todoService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/todos/summary", (request, response) -> response
+                                .status(summaryStatus)
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(summaryLatency)
+                                        .thenReturn("{\"total\":3,\"completed\":1,\"pending\":2}")))
+                        .get("/todos", (request, response) -> {
+                            String uri = request.uri();
+                            String query = uri.contains("?") ? uri.substring(uri.indexOf('?') + 1) : "";
+                            return response
+                                    .header("Content-Type", "application/json")
+                                    .sendString(Mono.just("{\"user\":\"" + request.requestHeaders().get("X-User")
+                                            + "\",\"query\":\"" + query + "\"}"));
+                        }))
+                .bindNow();
+    }
+}
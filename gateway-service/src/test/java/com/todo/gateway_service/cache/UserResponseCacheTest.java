@@ -0,0 +1,51 @@
+package com.todo.gateway_service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserResponseCacheTest {
+
+    private final UserResponseCache cache = new UserResponseCache(DataSize.ofMegabytes(1), Duration.ofSeconds(30));
+
+    @Test
+    void invalidationDropsOnlyThatUsersEntries() {
+        cache.put("alice", "/todos", System.nanoTime(), response("alice"), Duration.ofSeconds(5));
+        cache.put("bob", "/todos", System.nanoTime(), response("bob"), Duration.ofSeconds(5));
+
+        cache.invalidate("alice");
+
+        assertNull(cache.get("alice", "/todos"));
+        assertNotNull(cache.get("bob", "/todos"));
+    }
+
+    @Test
+    void responsesReadBeforeAnInvalidationAreNeverServed() {
+        // Read started, then a write invalidated the user, then the read's response came back
+        long startedAt = System.nanoTime();
+        cache.invalidate("alice");
+        cache.put("alice", "/todos", startedAt, response("stale"), Duration.ofSeconds(5));
+        assertNull(cache.get("alice", "/todos"));
+
+        cache.put("alice", "/todos", System.nanoTime(), response("fresh"), Duration.ofSeconds(5));
+        assertNotNull(cache.get("alice", "/todos"));
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        cache.put("alice", "/todos", System.nanoTime(), response("alice"), Duration.ofMillis(20));
+        Thread.sleep(50);
+        assertNull(cache.get("alice", "/todos"));
+    }
+
+    private static ResponseSnapshot response(String body) {
+        return new ResponseSnapshot(HttpStatus.OK, HttpHeaders.EMPTY, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.todo.gateway_service.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The chain stands in for the upstream call: it counts calls and answers after a delay
+class CoalesceGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalesceGatewayFilterFactory factory = new CoalesceGatewayFilterFactory(meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        GatewayFilter filter = factory.apply(config(Duration.ofSeconds(2), DataSize.ofKilobytes(64)));
+        GatewayFilterChain chain = upstream("{\"content\":[]}", Duration.ofMillis(200));
+        MockServerWebExchange first = get("alice", "/todos?page=1");
+        MockServerWebExchange second = get("alice", "/todos?page=1");
+        MockServerWebExchange otherPage = get("alice", "/todos?page=2");
+        MockServerWebExchange otherUser = get("bob", "/todos?page=1");
+
+        Mono.when(filter.filter(first, chain), filter.filter(second, chain),
+                filter.filter(otherPage, chain), filter.filter(otherUser, chain)).block();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+        assertEquals("{\"content\":[]}", second.getResponse().getBodyAsString().block());
+        assertEquals("{\"content\":[]}", first.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.get("gateway.coalescing.requests").tag("role", "follower").counter().count());
+        assertEquals(3.0, meterRegistry.get("gateway.coalescing.requests").tag("role", "leader").counter().count());
+    }
+
+    @Test
+    void followersCallUpstreamThemselvesWhenTheyCannotShare() {
+        // Body over the limit
+        GatewayFilter small = factory.apply(config(Duration.ofSeconds(2), DataSize.ofBytes(4)));
+        GatewayFilterChain chain = upstream("{\"content\":[]}", Duration.ofMillis(200));
+        MockServerWebExchange follower = get("alice", "/todos");
+        Mono.when(small.filter(get("alice", "/todos"), chain), small.filter(follower, chain)).block();
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("{\"content\":[]}", follower.getResponse().getBodyAsString().block());
+
+        // Leader slower than the follower is willing to wait
+        GatewayFilter impatient = factory.apply(config(Duration.ofMillis(50), DataSize.ofKilobytes(64)));
+        Mono.when(impatient.filter(get("alice", "/todos"), chain), impatient.filter(get("alice", "/todos"), chain)).block();
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(2.0, meterRegistry.get("gateway.coalescing.requests").tag("role", "fallback").counter().count());
+    }
+
+    private GatewayFilterChain upstream(String body, Duration latency) {
+        return exchange -> Mono.delay(latency).then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }));
+    }
+
+    private static MockServerWebExchange get(String user, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        exchange.getAttributes().put(JwtAuthFilter.AUTHENTICATED_USER_ATTR, user);
+        return exchange;
+    }
+
+    private static CoalesceGatewayFilterFactory.Config config(Duration maxWait, DataSize maxBodySize) {
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setMaxWait(maxWait);
+        config.setMaxBodySize(maxBodySize);
+        return config;
+    }
+}
@@ -0,0 +1,191 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.hedge.HedgeBudget;
+import com.todo.gateway_service.loadbalancer.InstanceStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two stub todo-service instances on real ports, answering after an injected delay
+class HedgeGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceStats stats = new InstanceStats(Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(1),
+            Duration.ofMinutes(10), meterRegistry);
+    private DisposableServer fastServer;
+    private DisposableServer slowServer;
+    private ServiceInstance fast;
+    private ServiceInstance slow;
+    private LoadBalancerClientFactory clientFactory;
+
+    @BeforeEach
+    void startInstances() {
+        fastServer = stub("fast", Duration.ofMillis(5));
+        slowServer = stub("slow", Duration.ofMillis(600));
+        fast = new DefaultServiceInstance("fast", "todo-service", "localhost", fastServer.port(), false);
+        slow = new DefaultServiceInstance("slow", "todo-service", "localhost", slowServer.port(), false);
+
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "todo-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.of(fast, slow));
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get(Request request) {
+                return get();
+            }
+        };
+        clientFactory = mock(LoadBalancerClientFactory.class);
+        when(clientFactory.getInstance("todo-service", ServiceInstanceListSupplier.class)).thenReturn(supplier);
+    }
+
+    @AfterEach
+    void stopInstances() {
+        fastServer.disposeNow();
+        slowServer.disposeNow();
+    }
+
+    @Test
+    void slowFirstAttemptIsOvertakenByAHedgeToAnotherInstance() throws InterruptedException {
+        GatewayFilter filter = factory(new HedgeBudget(100, 10)).apply(config());
+        warmUp(filter);
+
+        long started = System.nanoTime();
+        MockServerWebExchange exchange = get(slow);
+        new LoadBalancerStatsFilter(stats).filter(exchange, e -> filter.filter(e, routed -> Mono.empty())).block();
+
+        assertEquals("fast", exchange.getResponse().getBodyAsString().block());
+        assertTrue(System.nanoTime() - started < Duration.ofMillis(400).toNanos());
+        assertEquals(1.0, meterRegistry.get("gateway.hedging.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.hedging.won").counter().count());
+        // The overtaken instance is not credited with the hedge's answer time. block() can return
+        // before the stats filter's doFinally has run on the event loop.
+        assertEquals(0.0, awaitInFlight(slow, Duration.ofSeconds(5)));
+        assertTrue(Double.isNaN(gauge("gateway.loadbalancer.latency", slow)));
+    }
+
+    @Test
+    void routeResponseTimeoutMetadataOverridesTheGlobalOne() {
+        GatewayFilter filter = factory(new HedgeBudget(100, 10)).apply(config());
+
+        MockServerWebExchange exchange = get(slow);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("todos")
+                .uri("lb://todo-service")
+                .predicate(e -> true)
+                .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, 100)
+                .build());
+
+        ResponseStatusException timeout = assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange, e -> Mono.empty()).block());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, timeout.getStatusCode());
+    }
+
+    @Test
+    void noHedgeWithoutBudget() {
+        GatewayFilter filter = factory(new HedgeBudget(0, 0)).apply(config());
+        warmUp(filter);
+
+        MockServerWebExchange exchange = get(slow);
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        assertEquals("slow", exchange.getResponse().getBodyAsString().block());
+        assertEquals(0.0, meterRegistry.get("gateway.hedging.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.hedging.budget_denied").counter().count());
+    }
+
+    private double awaitInFlight(ServiceInstance instance, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        double inFlight = gauge("gateway.loadbalancer.in_flight", instance);
+        while (inFlight != 0.0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            inFlight = gauge("gateway.loadbalancer.in_flight", instance);
+        }
+        return inFlight;
+    }
+
+    private double gauge(String name, ServiceInstance instance) {
+        return meterRegistry.get(name).tag("instance", "localhost:" + instance.getPort()).gauge().value();
+    }
+
+    // Enough fast responses for the route to have a percentile to hedge at
+    private void warmUp(GatewayFilter filter) {
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = get(fast);
+            filter.filter(exchange, e -> Mono.empty()).block();
+            assertEquals("fast", exchange.getResponse().getBodyAsString().block());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HedgeGatewayFilterFactory factory(HedgeBudget budget) {
+        ObjectProvider<List<org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter>> headersFilters =
+                mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+        return new HedgeGatewayFilterFactory(HttpClient.create(), new HttpClientProperties(), headersFilters,
+                clientFactory, stats, budget, meterRegistry);
+    }
+
+    private static HedgeGatewayFilterFactory.Config config() {
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setMinSamples(5);
+        return config;
+    }
+
+    private static MockServerWebExchange get(ServiceInstance instance) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/todos"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://localhost:" + instance.getPort() + "/todos"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(instance));
+        return exchange;
+    }
+
+    private static DisposableServer stub(String name, Duration latency) {
+        return HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/todos", (request, response) -> response
+                        .header("Content-Type", "text/plain")
+                        .sendString(Mono.delay(latency).thenReturn(name))))
+                .bindNow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtAuthFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private final JwtAuthFilter filter = new JwtAuthFilter(
+            new JwtUtil("test-secret-test-secret-test-secret-0123456789", 1_000, Duration.ofMinutes(5)));
+
+    @Test
+    void userExistenceLookupsAreNotReachableThroughTheGateway() {
+        MockServerWebExchange batch = send(MockServerHttpRequest.post("/auth/exists"));
+        MockServerWebExchange single = send(MockServerHttpRequest.get("/auth/exists/alice"));
+
+        assertEquals(HttpStatus.NOT_FOUND, batch.getResponse().getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, single.getResponse().getStatusCode());
+        assertEquals(0, forwarded.get());
+    }
+
+    @Test
+    void otherAuthRoutesStayPublic() {
+        MockServerWebExchange login = send(MockServerHttpRequest.post("/auth/login"));
+        MockServerWebExchange lookalike = send(MockServerHttpRequest.get("/auth/existsx"));
+
+        assertNull(login.getResponse().getStatusCode());
+        assertNull(lookalike.getResponse().getStatusCode());
+        assertEquals(2, forwarded.get());
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,114 @@
+package com.todo.gateway_service.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 1 request per second with a burst of 3 per user, 5 per IP
+    private final RateLimitFilter filter = new RateLimitFilter(true, 1, 3, 1, 5, Duration.ofMinutes(1), meterRegistry);
+
+    @AfterEach
+    void stop() {
+        filter.destroy();
+    }
+
+    @Test
+    void userOverBurstGets429WithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(send("alice", "10.0.0.1", route(Map.of())).getResponse().getStatusCode());
+        }
+
+        MockServerWebExchange limited = send("alice", "10.0.0.2", route(Map.of()));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertEquals("1", limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        // bob has his own bucket
+        assertNull(send("bob", "10.0.0.3", route(Map.of())).getResponse().getStatusCode());
+        assertEquals(4, forwarded.get());
+    }
+
+    @Test
+    void routeMetadataOverridesTheDefaults() {
+        Route strict = route(Map.of("rate-limit-user-burst", 1));
+        send("alice", "10.0.0.1", strict);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send("alice", "10.0.0.1", strict).getResponse().getStatusCode());
+
+        Route unlimited = route(Map.of("rate-limit-user-per-second", "0", "rate-limit-ip-per-second", 0));
+        for (int i = 0; i < 10; i++) {
+            assertNull(send("alice", "10.0.0.1", unlimited).getResponse().getStatusCode());
+        }
+    }
+
+    @Test
+    void anonymousClientsAreLimitedByIp() {
+        for (int i = 0; i < 5; i++) {
+            send(null, "10.0.0.9", route(Map.of()));
+        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send(null, "10.0.0.9", route(Map.of())).getResponse().getStatusCode());
+        assertNull(send(null, "10.0.0.10", route(Map.of())).getResponse().getStatusCode());
+    }
+
+    @Test
+    void ipRejectionsGiveTheUserTokenBack() {
+        Route strictIp = route(Map.of("rate-limit-ip-burst", 1));
+        send("alice", "10.0.0.1", strictIp);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, send("alice", "10.0.0.1", strictIp).getResponse().getStatusCode());
+        }
+
+        // Only the one forwarded request has spent alice's burst of 3
+        assertNull(send("alice", "10.0.0.2", strictIp).getResponse().getStatusCode());
+        assertNull(send("alice", "10.0.0.3", strictIp).getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send("alice", "10.0.0.4", strictIp).getResponse().getStatusCode());
+
+        assertEquals(3, forwarded.get());
+        assertEquals(5.0, meterRegistry.get("gateway.rate_limit.rejected").tag("limit", "ip").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.rate_limit.rejected").tag("limit", "user").counter().count());
+    }
+
+    private MockServerWebExchange send(String user, String ip, Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/todos")
+                .remoteAddress(new InetSocketAddress(ip, 40000)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        if (user != null) {
+            exchange.getAttributes().put(JwtAuthFilter.AUTHENTICATED_USER_ATTR, user);
+        }
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static Route route(Map<String, Object> metadata) {
+        return Route.async()
+                .id("todo-service")
+                .uri("lb://TODO-SERVICE")
+                .predicate(exchange -> true)
+                .metadata(metadata)
+                .build();
+    }
+}
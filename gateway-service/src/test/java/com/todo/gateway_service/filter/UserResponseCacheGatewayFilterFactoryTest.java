@@ -0,0 +1,167 @@
+package com.todo.gateway_service.filter;
+
+import com.todo.gateway_service.cache.UserResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// The chain stands in for todo-service: it counts calls, answers GETs with the list (or 304
+// when If-None-Match holds its version) and writes with the invalidation header
+class UserResponseCacheGatewayFilterFactoryTest {
+
+    private static final String LIST = "{\"content\":[]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserResponseCache cache = new UserResponseCache(DataSize.ofMegabytes(1), Duration.ofSeconds(30));
+    private final GatewayFilter filter = new UserResponseCacheGatewayFilterFactory(cache, meterRegistry)
+            .apply(new UserResponseCacheGatewayFilterFactory.Config());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private String version = "v1";
+    private String cacheControl;
+    private final GatewayFilterChain chain = exchange -> {
+        upstreamCalls.incrementAndGet();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        if (exchange.getRequest().getMethod().matches("GET")) {
+            String etag = "W/\"" + version + "\"";
+            exchange.getResponse().getHeaders().setETag(etag);
+            if (cacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            if (etag.equals(exchange.getRequest().getHeaders().getIfNoneMatch().stream().findFirst().orElse(null))) {
+                notModified.incrementAndGet();
+                exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+                return exchange.getResponse().setComplete();
+            }
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(body().getBytes(StandardCharsets.UTF_8))));
+        }
+        exchange.getResponse().getHeaders().set(UserResponseCacheGatewayFilterFactory.INVALIDATE_USER_HEADER,
+                exchange.getAttribute(JwtAuthFilter.AUTHENTICATED_USER_ATTR));
+        return exchange.getResponse().setComplete();
+    };
+
+    @Test
+    void repeatGetsAreServedFromTheCacheUntilTheUserWrites() {
+        filter.filter(get("alice", "/todos?page=1"), chain).block();
+        MockServerWebExchange hit = get("alice", "/todos?page=1");
+        filter.filter(hit, chain).block();
+        filter.filter(get("alice", "/todos?page=2"), chain).block();
+        filter.filter(get("bob", "/todos?page=1"), chain).block();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(LIST, hit.getResponse().getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, hit.getResponse().getHeaders().getContentType());
+        assertEquals(1.0, meterRegistry.get("gateway.response_cache.requests").tag("result", "hit").counter().count());
+        assertEquals(LIST.length(), meterRegistry.get("gateway.response_cache.bytes_saved").counter().count());
+
+        MockServerWebExchange write = exchange("alice", MockServerHttpRequest.post("/todos"));
+        filter.filter(write, chain).block();
+        assertFalse(write.getResponse().getHeaders()
+                .containsKey(UserResponseCacheGatewayFilterFactory.INVALIDATE_USER_HEADER));
+
+        filter.filter(get("alice", "/todos?page=1"), chain).block();
+        filter.filter(get("bob", "/todos?page=1"), chain).block();
+        assertEquals(5, upstreamCalls.get());
+    }
+
+    @Test
+    void hitsWithAMatchingIfNoneMatchGetNotModified() {
+        filter.filter(get("alice", "/todos"), chain).block();
+
+        MockServerWebExchange revalidation = exchange("alice", MockServerHttpRequest.get("/todos")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        filter.filter(revalidation, chain).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals("W/\"v1\"", revalidation.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void noCacheRequestsAndAnonymousRequestsGoUpstream() {
+        filter.filter(get("alice", "/todos"), chain).block();
+        filter.filter(exchange("alice", MockServerHttpRequest.get("/todos")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")), chain).block();
+        filter.filter(exchange(null, MockServerHttpRequest.get("/todos")), chain).block();
+        filter.filter(exchange(null, MockServerHttpRequest.get("/todos")), chain).block();
+
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.response_cache.requests").tag("result", "bypass").counter().count());
+    }
+
+    @Test
+    void privateAndNoStoreResponsesAreNotStored() {
+        cacheControl = "private, no-cache";
+        filter.filter(get("alice", "/todos"), chain).block();
+        filter.filter(get("alice", "/todos"), chain).block();
+        cacheControl = "No-Store";
+        filter.filter(get("alice", "/todos"), chain).block();
+        filter.filter(get("alice", "/todos"), chain).block();
+
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(0.0, meterRegistry.get("gateway.response_cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void noCacheResponsesAreRevalidatedBeforeEveryHit() {
+        cacheControl = "no-cache";
+        filter.filter(get("alice", "/todos"), chain).block();
+
+        MockServerWebExchange revalidated = get("alice", "/todos");
+        filter.filter(revalidated, chain).block();
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, notModified.get());
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals(LIST, revalidated.getResponse().getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, revalidated.getResponse().getHeaders().getContentType());
+        assertEquals(LIST.length(), meterRegistry.get("gateway.response_cache.bytes_saved").counter().count());
+
+        // Changed through another gateway instance: downstream's newer 200 is served and replaces the entry
+        version = "v2";
+        MockServerWebExchange changed = get("alice", "/todos");
+        filter.filter(changed, chain).block();
+        assertEquals(body(), changed.getResponse().getBodyAsString().block());
+        assertEquals("W/\"v2\"", changed.getResponse().getHeaders().getETag());
+
+        MockServerWebExchange clientRevalidation = exchange("alice", MockServerHttpRequest.get("/todos")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"v2\""));
+        filter.filter(clientRevalidation, chain).block();
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, clientRevalidation.getResponse().getStatusCode());
+        assertEquals(3.0, meterRegistry.get("gateway.response_cache.requests")
+                .tag("result", "revalidated").counter().count());
+    }
+
+    private String body() {
+        return version.equals("v1") ? LIST : "{\"content\":[],\"version\":\"" + version + "\"}";
+    }
+
+    private static MockServerWebExchange get(String user, String uri) {
+        return exchange(user, MockServerHttpRequest.get(uri));
+    }
+
+    private static MockServerWebExchange exchange(String user, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (user != null) {
+            exchange.getAttributes().put(JwtAuthFilter.AUTHENTICATED_USER_ATTR, user);
+        }
+        return exchange;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todo.gateway_service.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgeBudgetTest {
+
+    @Test
+    void hedgesAreCappedAtTheConfiguredShareOfTraffic() {
+        HedgeBudget budget = new HedgeBudget(5, 2);
+        assertFalse(budget.tryWithdraw());
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            // Every request is slow and wants a hedge
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertEquals(50, hedges);
+    }
+
+    @Test
+    void quietPeriodsOnlySaveUpTheBurst() {
+        HedgeBudget budget = new HedgeBudget(5, 2);
+        for (int i = 0; i < 10_000; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
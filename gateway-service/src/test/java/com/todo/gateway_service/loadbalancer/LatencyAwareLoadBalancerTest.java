@@ -0,0 +1,107 @@
+package com.todo.gateway_service.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Stub instances answer after an injected delay; the test plays LoadBalancerStatsFilter's part
+class LatencyAwareLoadBalancerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<ServiceInstance, AtomicInteger> picks = new ConcurrentHashMap<>();
+
+    @Test
+    void slowInstanceGetsLittleTrafficUnderConcurrency() throws InterruptedException {
+        InstanceStats stats = new InstanceStats(Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(1),
+                Duration.ofMinutes(10), meterRegistry, System::nanoTime);
+        ServiceInstance fastA = instance("10.0.0.1");
+        ServiceInstance fastB = instance("10.0.0.2");
+        ServiceInstance paused = instance("10.0.0.3");
+        Map<ServiceInstance, Duration> latency = Map.of(
+                fastA, Duration.ofMillis(5), fastB, Duration.ofMillis(5), paused, Duration.ofMillis(150));
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(null, "todo-service", stats);
+        List<ServiceInstance> instances = List.of(fastA, fastB, paused);
+
+        Flux.range(0, 1500)
+                .flatMap(i -> Mono.defer(() -> {
+                    ServiceInstance chosen = balancer.choose(instances).getServer();
+                    picks.computeIfAbsent(chosen, key -> new AtomicInteger()).incrementAndGet();
+                    long started = System.nanoTime();
+                    stats.requestStarted(chosen);
+                    return Mono.delay(latency.get(chosen))
+                            .doFinally(signal -> stats.requestFinished(chosen, System.nanoTime() - started, false));
+                }), 30)
+                .blockLast();
+
+        // Round robin would send it a third (500)
+        assertTrue(share(paused) < 0.1, "paused instance share " + share(paused));
+        // blockLast can return before the last doFinally has run on its timer thread
+        assertEquals(0.0, awaitInFlight("10.0.0.3:8080", 0.0, Duration.ofSeconds(5)));
+        assertTrue(meterRegistry.get("gateway.loadbalancer.latency")
+                .tag("instance", "10.0.0.3:8080").gauge().value() >= 150);
+    }
+
+    @Test
+    void newInstancesRampUpOverTheSlowStartWindow() {
+        AtomicLong clock = new AtomicLong();
+        InstanceStats stats = new InstanceStats(Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(1),
+                Duration.ofMinutes(10), meterRegistry, clock::get);
+        ServiceInstance warmA = instance("10.0.0.1");
+        ServiceInstance warmB = instance("10.0.0.2");
+        for (ServiceInstance warm : List.of(warmA, warmB)) {
+            stats.requestStarted(warm);
+            stats.requestFinished(warm, Duration.ofMillis(10).toNanos(), false);
+        }
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        ServiceInstance joined = instance("10.0.0.9");
+        List<ServiceInstance> instances = List.of(warmA, warmB, joined);
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(null, "todo-service", stats);
+
+        pick(balancer, instances, 3000);
+        assertEquals(0, picks.getOrDefault(joined, new AtomicInteger()).get());
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        picks.clear();
+        pick(balancer, instances, 3000);
+        assertTrue(share(joined) > 0.25 && share(joined) < 0.42, "warmed-up instance share " + share(joined));
+    }
+
+    private double awaitInFlight(String instance, double expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        double inFlight = meterRegistry.get("gateway.loadbalancer.in_flight").tag("instance", instance).gauge().value();
+        while (inFlight != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            inFlight = meterRegistry.get("gateway.loadbalancer.in_flight").tag("instance", instance).gauge().value();
+        }
+        return inFlight;
+    }
+
+    private void pick(LatencyAwareLoadBalancer balancer, List<ServiceInstance> instances, int times) {
+        for (int i = 0; i < times; i++) {
+            picks.computeIfAbsent(balancer.choose(instances).getServer(), key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private double share(ServiceInstance instance) {
+        int total = picks.values().stream().mapToInt(AtomicInteger::get).sum();
+        return (double) picks.getOrDefault(instance, new AtomicInteger()).get() / total;
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host + ":todo-service:8080", "todo-service", host, 8080, false);
+    }
+}
@@ -0,0 +1,65 @@
+package com.todo.gateway_service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(-5_000_000_000L);
+    private final TokenBucketStore store = new TokenBucketStore(clock::get);
+    private final TokenBucketStore.Limit twoPerSecondBurstThree = TokenBucketStore.Limit.of(2, 3);
+
+    @Test
+    void burstThenSteadyRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, store.tryAcquire("alice", twoPerSecondBurstThree));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), store.tryAcquire("alice", twoPerSecondBurstThree));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, store.tryAcquire("alice", twoPerSecondBurstThree));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), store.tryAcquire("alice", twoPerSecondBurstThree));
+
+        // Other keys have their own bucket
+        assertEquals(0, store.tryAcquire("bob", twoPerSecondBurstThree));
+    }
+
+    @Test
+    void releasedTokensCanBeTakenAgain() {
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("alice", twoPerSecondBurstThree);
+        }
+        store.release("alice", twoPerSecondBurstThree);
+        assertEquals(0, store.tryAcquire("alice", twoPerSecondBurstThree));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), store.tryAcquire("alice", twoPerSecondBurstThree));
+
+        // Releasing into a full bucket does not raise it past the burst
+        store.tryAcquire("bob", twoPerSecondBurstThree);
+        store.release("bob", twoPerSecondBurstThree);
+        store.release("bob", twoPerSecondBurstThree);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, store.tryAcquire("bob", twoPerSecondBurstThree));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), store.tryAcquire("bob", twoPerSecondBurstThree));
+    }
+
+    @Test
+    void onlyFullBucketsAreEvicted() {
+        store.tryAcquire("alice", twoPerSecondBurstThree);
+        store.tryAcquire("bob", twoPerSecondBurstThree);
+        store.tryAcquire("bob", twoPerSecondBurstThree);
+        store.tryAcquire("bob", twoPerSecondBurstThree);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(1, store.evictIdle());
+        assertEquals(1, store.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, store.evictIdle());
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.todo.gateway_service.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 1_000, Duration.ofMinutes(5));
+
+    @Test
+    void repeatTokensAreServedFromTheCache() {
+        String token = token("alice", SECRET, Instant.now().plusSeconds(60));
+
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token);
+        assertEquals("alice", first.subject());
+        assertEquals("ROLE_USER", first.roles());
+        assertSame(first, jwtUtil.verify(token));
+    }
+
+    @Test
+    void cachedTokensStopWorkingAtTheirExpiry() throws InterruptedException {
+        String token = token("alice", SECRET, Instant.now().plusMillis(1_500));
+        jwtUtil.verify(token);
+
+        Thread.sleep(1_600);
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void badSignaturesAreRejectedEveryTime() {
+        String forged = token("alice", "another-secret-another-secret-another-secret-01", Instant.now().plusSeconds(60));
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verify(forged));
+        assertFalse(jwtUtil.validateToken(forged));
+    }
+
+    static String token(String subject, String secret, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("roles", "ROLE_USER")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
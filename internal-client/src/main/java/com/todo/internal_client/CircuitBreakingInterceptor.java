@@ -0,0 +1,92 @@
+package com.todo.internal_client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Guards each target service with a bulkhead and a circuit breaker named after the URI host.
+ * Registered ahead of the @LoadBalanced interceptor, so the host is still the service id
+ * (AUTH-SERVICE) and one breaker covers all of its instances.
+ * <p>
+ * 5xx responses count as failures but are still returned to the caller. Rejections are thrown
+ * as IOException, so RestTemplate reports them as ResourceAccessException like any other
+ * unreachable service.
+ */
+class CircuitBreakingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    CircuitBreakingInterceptor(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String service = request.getURI().getHost();
+        Bulkhead bulkhead = bulkheads.bulkhead(service);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(service);
+
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            throw new RejectedCallException("Too many concurrent calls to " + service, e);
+        }
+        try {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (CallNotPermittedException e) {
+                throw new RejectedCallException("Circuit breaker open for " + service, e);
+            }
+
+            long started = circuitBreaker.getCurrentTimestamp();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                long elapsed = circuitBreaker.getCurrentTimestamp() - started;
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onError(elapsed, circuitBreaker.getTimestampUnit(),
+                            new IOException(service + " answered " + response.getStatusCode().value()));
+                } else {
+                    circuitBreaker.onSuccess(elapsed, circuitBreaker.getTimestampUnit());
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - started,
+                        circuitBreaker.getTimestampUnit(), e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    // True when the failure is this interceptor refusing the call, anywhere in the cause chain
+    static boolean isRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedCallException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A call refused by the bulkhead or the circuit breaker before it reached the service
+    private static final class RejectedCallException extends IOException {
+
+        RejectedCallException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
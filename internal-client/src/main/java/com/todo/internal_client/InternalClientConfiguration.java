@@ -0,0 +1,100 @@
+package com.todo.internal_client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Set;
+
+/**
+ * Import from a service's own configuration (like AuditConfig does for audit-service) and
+ * build its RestTemplate from InternalRestTemplateFactory. The circuit breaker, bulkhead and
+ * retry registries come from resilience4j's Spring Boot auto-configuration, which also exports
+ * their metrics through actuator; the connection pool is exported as httpcomponents.httpclient.pool.*.
+ */
+@Configuration
+@EnableConfigurationProperties(InternalClientProperties.class)
+public class InternalClientConfiguration {
+
+    static final String RETRY_NAME = "internal-client";
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager internalClientConnectionManager(InternalClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnections())
+                .setMaxConnPerRoute(properties.maxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient internalHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                  InternalClientProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.poolWaitTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.readTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.of(properties.idleTimeout()))
+                .evictExpiredConnections()
+                // Retries are ours (RetryingRestTemplate), only for idempotent methods
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public MeterBinder internalClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "internal-client");
+    }
+
+    @Bean
+    public InternalRestTemplateFactory internalRestTemplateFactory(CloseableHttpClient internalHttpClient,
+                                                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                                                   BulkheadRegistry bulkheadRegistry,
+                                                                   RetryRegistry retryRegistry,
+                                                                   InternalClientProperties properties) {
+        InternalClientProperties.Retry retry = properties.retry();
+        RetryConfig config = RetryConfig.custom()
+                .maxAttempts(retry.maxAttempts())
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        retry.initialBackoff(), retry.multiplier(), retry.jitter()))
+                .retryOnException(InternalClientConfiguration::isRetryable)
+                .build();
+        Retry internalRetry = retryRegistry.retry(RETRY_NAME, config);
+        return new InternalRestTemplateFactory(internalHttpClient, circuitBreakerRegistry, bulkheadRegistry, internalRetry);
+    }
+
+    // I/O errors and 502/503/504 as RestTemplate reports them. Calls the circuit breaker or
+    // bulkhead refused never reached the service, and retrying them would only wait for the same answer.
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof HttpServerErrorException error) {
+            return RETRYABLE_STATUSES.contains(error.getStatusCode().value());
+        }
+        return e instanceof ResourceAccessException && !CircuitBreakingInterceptor.isRejection(e);
+    }
+}
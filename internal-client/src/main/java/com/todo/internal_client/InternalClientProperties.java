@@ -0,0 +1,34 @@
+package com.todo.internal_client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection pool, timeouts and retry policy for service-to-service calls. Circuit breaker and
+ * bulkhead settings use resilience4j's own properties, one instance per target service id
+ * (resilience4j.circuitbreaker.instances.AUTH-SERVICE..., or configs.default for all of them).
+ */
+@ConfigurationProperties("internal-client")
+public record InternalClientProperties(
+        @DefaultValue("1s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        // How long a call may wait for a free pooled connection before failing
+        @DefaultValue("1s") Duration poolWaitTimeout,
+        @DefaultValue("200") int maxConnections,
+        @DefaultValue("50") int maxConnectionsPerHost,
+        @DefaultValue("30s") Duration idleTimeout,
+        @DefaultValue Retry retry) {
+
+    /**
+     * Retries for idempotent methods (GET, HEAD, OPTIONS, PUT, DELETE) on I/O errors and
+     * 502/503/504, with exponential backoff randomised by the jitter factor.
+     */
+    public record Retry(
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("100ms") Duration initialBackoff,
+            @DefaultValue("2.0") double multiplier,
+            @DefaultValue("0.5") double jitter) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.todo.internal_client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds RestTemplates for service-to-service calls: pooled keep-alive connections with
+ * timeouts (InternalClientConfiguration), a bulkhead and circuit breaker per target service,
+ * and jittered retries for idempotent requests.
+ * <p>
+ * Annotate the resulting bean with @LoadBalanced as before; Spring Cloud appends its
+ * interceptor after ours, so service ids keep resolving through Eureka, and every retry
+ * goes through it again to choose an instance.
+ */
+public class InternalRestTemplateFactory {
+
+    private final HttpClient httpClient;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Retry retry;
+
+    public InternalRestTemplateFactory(HttpClient httpClient, CircuitBreakerRegistry circuitBreakers,
+                                       BulkheadRegistry bulkheads, Retry retry) {
+        this.httpClient = httpClient;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.retry = retry;
+    }
+
+    public RestTemplate create() {
+        RestTemplate restTemplate = new RetryingRestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient), retry);
+        List<ClientHttpRequestInterceptor> interceptors =
+                new ArrayList<>(restTemplate.getInterceptors());
+        interceptors.add(new CircuitBreakingInterceptor(circuitBreakers, bulkheads));
+        restTemplate.setInterceptors(interceptors);
+        return restTemplate;
+    }
+}
@@ -0,0 +1,45 @@
+package com.todo.internal_client;
+
+import io.github.resilience4j.retry.Retry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * Retries idempotent requests by running the whole exchange again. Each attempt builds a new
+ * request through every interceptor, the @LoadBalanced one included, so a retry picks an
+ * instance again instead of going back to the one that just refused the connection or answered
+ * 502/503/504. Each attempt also counts as one call for the circuit breaker.
+ * <p>
+ * Which failures are retried is the Retry's decision (InternalClientConfiguration); the request
+ * callback writes the body again on every attempt.
+ */
+class RetryingRestTemplate extends RestTemplate {
+
+    private static final Set<HttpMethod> IDEMPOTENT = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final Retry retry;
+
+    RetryingRestTemplate(ClientHttpRequestFactory requestFactory, Retry retry) {
+        super(requestFactory);
+        this.retry = retry;
+    }
+
+    @Override
+    protected <T> T doExecute(URI url, @Nullable String uriTemplate, @Nullable HttpMethod method,
+                              @Nullable RequestCallback requestCallback,
+                              @Nullable ResponseExtractor<T> responseExtractor) throws RestClientException {
+        if (method == null || !IDEMPOTENT.contains(method)) {
+            return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+        }
+        return retry.executeSupplier(() -> super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor));
+    }
+}
@@ -0,0 +1,190 @@
+package com.todo.internal_client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerInterceptor;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A local HTTP server answers with queued status codes (200 once the queue is empty) and counts hits
+class InternalRestTemplateFactoryTest {
+
+    private final Deque<Integer> statuses = new ArrayDeque<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private InternalRestTemplateFactory factory;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            Integer queued;
+            synchronized (statuses) {
+                queued = statuses.poll();
+            }
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(queued != null ? queued : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        InternalClientProperties properties = new InternalClientProperties(Duration.ofSeconds(1), Duration.ofSeconds(2),
+                Duration.ofSeconds(1), 20, 5, Duration.ofSeconds(30),
+                new InternalClientProperties.Retry(3, Duration.ofMillis(10), 2.0, 0.5));
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+
+        InternalClientConfiguration configuration = new InternalClientConfiguration();
+        connectionManager = configuration.internalClientConnectionManager(properties);
+        httpClient = configuration.internalHttpClient(connectionManager, properties);
+        factory = configuration.internalRestTemplateFactory(httpClient, circuitBreakers,
+                BulkheadRegistry.ofDefaults(), RetryRegistry.ofDefaults(), properties);
+        restTemplate = factory.create();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void idempotentCallsAreRetriedOnUnavailable() {
+        statuses.addAll(List.of(503, 503));
+
+        assertEquals("{\"ok\":true}", restTemplate.getForObject(url("/auth/exists/alice"), String.class));
+        assertEquals(3, hits.get());
+
+        statuses.add(503);
+        assertThrows(HttpServerErrorException.class,
+                () -> restTemplate.postForObject(url("/auth/exists"), "{}", String.class));
+        assertEquals(4, hits.get());
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingTheService() {
+        for (int i = 0; i < 4; i++) {
+            statuses.add(500);
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url("/boom"), String.class));
+        }
+        assertEquals(4, hits.get());
+
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(url("/boom"), String.class));
+        assertTrue(rejected.getMessage().contains("Circuit breaker open for localhost"));
+        assertEquals(4, hits.get());
+    }
+
+    @Test
+    void retryChoosesAnotherInstanceWhenTheFirstIsDown() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        RoundRobinClient loadBalancer = new RoundRobinClient(List.of(
+                new DefaultServiceInstance("down", "AUTH-SERVICE", "localhost", closedPort, false),
+                new DefaultServiceInstance("up", "AUTH-SERVICE", "localhost", server.getAddress().getPort(), false)));
+
+        // What @LoadBalanced does: Spring Cloud appends its interceptor after ours
+        RestTemplate loadBalanced = factory.create();
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(loadBalanced.getInterceptors());
+        interceptors.add(new LoadBalancerInterceptor(loadBalancer));
+        loadBalanced.setInterceptors(interceptors);
+
+        assertEquals("{\"ok\":true}", loadBalanced.getForObject("http://AUTH-SERVICE/auth/exists/alice", String.class));
+        assertEquals(List.of("down", "up"), loadBalancer.chosen);
+        assertEquals(1, hits.get());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    // Stands in for Spring Cloud LoadBalancer's round-robin choice over the registered instances
+    private static final class RoundRobinClient implements LoadBalancerClient {
+
+        private final List<ServiceInstance> instances;
+        private final List<String> chosen = new ArrayList<>();
+
+        RoundRobinClient(List<ServiceInstance> instances) {
+            this.instances = instances;
+        }
+
+        @Override
+        public ServiceInstance choose(String serviceId) {
+            ServiceInstance instance = instances.get(chosen.size() % instances.size());
+            chosen.add(instance.getInstanceId());
+            return instance;
+        }
+
+        @Override
+        public <T> ServiceInstance choose(String serviceId, Request<T> request) {
+            return choose(serviceId);
+        }
+
+        @Override
+        public <T> T execute(String serviceId, LoadBalancerRequest<T> request) throws IOException {
+            return execute(serviceId, choose(serviceId), request);
+        }
+
+        @Override
+        public <T> T execute(String serviceId, ServiceInstance serviceInstance, LoadBalancerRequest<T> request)
+                throws IOException {
+            try {
+                return request.apply(serviceInstance);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public URI reconstructURI(ServiceInstance instance, URI original) {
+            return LoadBalancerUriTools.reconstructURI(instance, original);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.todo.todo_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.todo.todo_service.event.TodoChangedEvent;
+import com.todo.todo_service.generated.model.PaginatedTodoResponse;
+import com.todo.todo_service.generated.model.TodoResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of list responses, keyed by username plus the normalised filter tuple.
+ * Caffeine bounds it by estimated bytes (W-TinyLFU eviction) and by TTL.
+ * <p>
+ * Each entry remembers the user's list version (TodoCounter.version) it was loaded at and is
+ * only served while the caller's freshly read version still matches. Writes bump the version
+ * in their own transaction, so a write through any instance retires the entries on all of
+ * them. Committed writes through this instance also drop the user's entries right away.
+ */
+@Component
+@Profile("!reactive")
+public class TodoPageCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<PageKey, CachedPage> cache;
+    private final ConcurrentMap<String, Set<PageKey>> keysByUser = new ConcurrentHashMap<>();
+
+    public TodoPageCache(@Value("${todo.cache.pages.enabled:true}") boolean enabled,
+                         @Value("${todo.cache.pages.max-weight-bytes:33554432}") long maxWeightBytes,
+                         @Value("${todo.cache.pages.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((PageKey key, CachedPage page) -> page.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener((PageKey key, CachedPage page, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        forgetKey(key);
+                    }
+                })
+                .build();
+    }
+
+    // version must be read before (and in the same transaction as) anything the loader reads,
+    // so a page is never stored under a version newer than its data
+    public PaginatedTodoResponse get(PageKey key, long version, Supplier<PaginatedTodoResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CachedPage cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return cached.response();
+        }
+
+        PaginatedTodoResponse response = loader.get();
+        keysByUser.computeIfAbsent(key.username(), u -> ConcurrentHashMap.newKeySet()).add(key);
+        cache.put(key, new CachedPage(version, response, estimateBytes(response)));
+        return response;
+    }
+
+    // Entries of an outdated version are never served; dropping them here just frees the space
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        invalidateUser(event.username());
+    }
+
+    public void invalidateUser(String username) {
+        Set<PageKey> keys = keysByUser.remove(username);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    public void invalidateAll() {
+        keysByUser.clear();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // cache.gets / cache.evictions / cache.size ... tagged cache=todo.pages under /actuator/metrics
+        CaffeineCacheMetrics.monitor(registry, cache, "todo.pages");
+    }
+
+    private void forgetKey(PageKey key) {
+        Set<PageKey> keys = keysByUser.get(key.username());
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    // Rough retained size: fixed overhead per object plus two bytes per char of the strings
+    private static int estimateBytes(PaginatedTodoResponse response) {
+        long bytes = 256;
+        if (response.getContent() != null) {
+            for (TodoResponse todo : response.getContent()) {
+                bytes += 160 + 2L * (length(todo.getTitle()) + length(todo.getDescription()) + length(todo.getUsername()));
+            }
+        }
+        bytes += 2L * length(response.getNextCursor());
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Normalised list request. Blank strings are folded to null, and page is dropped in
+     * cursor mode where it has no effect, so equivalent requests share an entry.
+     */
+    public record PageKey(String username,
+                          String status,
+                          String search,
+                          LocalDate startDate,
+                          LocalDate endDate,
+                          Integer page,
+                          Integer size,
+                          String after,
+                          boolean exactTotal) {
+
+        public static PageKey of(String username, String status, String search, LocalDate startDate,
+                                 LocalDate endDate, Integer page, Integer size, String after, Boolean exactTotal) {
+            String term = search != null && !search.isBlank() ? search : null;
+            String cursor = after != null && !after.isBlank() ? after : null;
+            return new PageKey(username,
+                    status,
+                    term,
+                    startDate,
+                    endDate,
+                    cursor != null ? null : page,
+                    size,
+                    cursor,
+                    !Boolean.FALSE.equals(exactTotal));
+        }
+
+        // 64-bit FNV-1a of the normalised tuple, used to tell filter combinations apart in ETags
+        public long fingerprint() {
+            long hash = 0xcbf29ce484222325L;
+            String text = toString();
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+
+    private record CachedPage(long version, PaginatedTodoResponse response, int weight) {
+    }
+}
@@ -1,16 +1,21 @@
 package com.todo.todo_service.config;
 
+import com.todo.internal_client.InternalClientConfiguration;
+import com.todo.internal_client.InternalRestTemplateFactory;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@Import(InternalClientConfiguration.class)
 public class AppConfig {
 
+    // Pooled connections, timeouts, circuit breaker, bulkhead and retries come from internal-client
     @Bean
     @LoadBalanced // 🟢 This enables Eureka service name resolution
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(InternalRestTemplateFactory internalRestTemplateFactory) {
+        return internalRestTemplateFactory.create();
     }
 }
@@ -3,9 +3,12 @@ package com.todo.todo_service.config; // or com.todo.todo_service for todo-servi
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Profile;
 
+// The audit aspect needs a servlet request and JPA; the reactive profile audits through ReactiveAuditWebFilter
 @Configuration
 @EnableAspectJAutoProxy
 @ComponentScan(basePackages = "com.todo.audit_service")
+@Profile("!reactive")
 public class AuditConfig {
 }
\ No newline at end of file
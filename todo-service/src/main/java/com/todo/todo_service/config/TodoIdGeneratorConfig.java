@@ -0,0 +1,46 @@
+package com.todo.todo_service.config;
+
+import com.todo.todo_service.model.Todo;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Todo ids moved from IDENTITY to a pooled table generator. Before the first insert, make sure
+ * the generator's next block starts above every id already in the todos table, so existing
+ * databases keep working without a manual migration.
+ */
+@Slf4j
+@Configuration
+@Profile("!reactive")
+public class TodoIdGeneratorConfig {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory guarantees Hibernate has created/updated the schema first
+    public TodoIdGeneratorConfig(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void alignTodoIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM todos", Long.class);
+        long floor = (maxId != null ? maxId : 0) + Todo.ID_ALLOCATION_SIZE;
+
+        int updated = jdbcTemplate.update(
+                "UPDATE todo_id_sequence SET next_val = ? WHERE sequence_name = 'todos' AND next_val < ?",
+                floor, floor);
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM todo_id_sequence WHERE sequence_name = 'todos'", Integer.class);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.update("INSERT INTO todo_id_sequence (sequence_name, next_val) VALUES ('todos', ?)", floor);
+            updated = 1;
+        }
+        if (updated > 0) {
+            log.info("Aligned todo id generator above existing ids | next_val={}", floor);
+        }
+    }
+}
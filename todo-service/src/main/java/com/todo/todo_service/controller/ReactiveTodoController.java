@@ -0,0 +1,165 @@
+package com.todo.todo_service.controller;
+
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.generated.model.*;
+import com.todo.todo_service.generated.reactive.api.TodoApi;
+import com.todo.todo_service.service.ReactiveTodoService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// The reactive profile's TodoController: same openapi.yml operations through the generated
+// Mono/Flux interface, so the gateway routes work unchanged against either stack
+@RestController
+@Profile("reactive")
+public class ReactiveTodoController implements TodoApi {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ReactiveTodoService todoService;
+
+    public ReactiveTodoController(ReactiveTodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    @Override
+    public Mono<ResponseEntity<TodoResponse>> createTodo(
+            String xUser,
+            Mono<TodoRequest> request,
+            ServerWebExchange exchange) {
+        return request.flatMap(body -> todoService.createTodo(body, xUser))
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<PaginatedTodoResponse>> getFilteredTodos(
+            String xUser,
+            String status,
+            String search,
+            LocalDate startDate,
+            LocalDate endDate,
+            Integer page,
+            Integer size,
+            String after,
+            Boolean exactTotal,
+            String ifNoneMatch,
+            ServerWebExchange exchange) {
+        return todoService.listEtag(xUser, status, search, startDate, endDate, page, size, after, exactTotal)
+                .flatMap(etag -> TodoController.matches(ifNoneMatch, etag)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(TodoController.LIST_CACHE_CONTROL)
+                                .<PaginatedTodoResponse>build())
+                        : todoService.getFilteredTodos(
+                                        xUser, status, search, startDate, endDate, page, size, after, exactTotal)
+                                .map(response -> ResponseEntity.ok()
+                                        .eTag(etag)
+                                        .cacheControl(TodoController.LIST_CACHE_CONTROL)
+                                        .body(response)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<TodoSummary>> getTodoSummary(
+            String xUser,
+            ServerWebExchange exchange) {
+        return todoService.getSummary(xUser).map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<BatchTodoResponse>> batchTodos(
+            String xUser,
+            Mono<BatchTodoRequest> batchTodoRequest,
+            ServerWebExchange exchange) {
+        return batchTodoRequest.flatMap(body -> todoService.applyBatch(body.getOperations(), xUser))
+                .map(results -> {
+                    BatchTodoResponse response = new BatchTodoResponse();
+                    response.setResults(results);
+                    return ResponseEntity.ok(response);
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<TodoResponse>> updateTodo(
+            String xUser,
+            Long id,
+            Mono<TodoRequest> request,
+            ServerWebExchange exchange) {
+        return request.flatMap(body -> todoService.updateTodo(id, body, xUser))
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<TodoResponse>> toggleTodo(
+            String xUser,
+            Long id,
+            Mono<ToggleTodoRequest> toggleTodoRequest,
+            ServerWebExchange exchange) {
+        return toggleTodoRequest.flatMap(body -> todoService.toggleTodo(id, body.getCompleted(), xUser))
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<DeleteTodo200Response>> deleteTodo(
+            String xUser,
+            Long id,
+            ServerWebExchange exchange) {
+        return todoService.deleteTodo(id, xUser)
+                .then(Mono.fromSupplier(() -> {
+                    DeleteTodo200Response res = new DeleteTodo200Response();
+                    res.setMessage("Todo deleted successfully");
+                    return ResponseEntity.ok(res);
+                }));
+    }
+
+    // Same parameters and body formats as TodoExportController
+    @GetMapping("/todos/export")
+    public ResponseEntity<Flux<String>> exportTodos(
+            @RequestHeader("X-User") String xUser,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        TodoFileFormat exportFormat = TodoFileFormat.from(format);
+        String filename = exportFormat == TodoFileFormat.CSV ? "todos.csv" : "todos.ndjson";
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == TodoFileFormat.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(todoService.exportTodos(xUser, status, search, startDate, endDate, exportFormat));
+    }
+
+    // Same parameters, body formats and NDJSON report as TodoImportController
+    @PostMapping("/todos/import")
+    public ResponseEntity<Flux<String>> importTodos(
+            @RequestHeader("X-User") String xUser,
+            @RequestParam(required = false) String format,
+            ServerHttpRequest request) {
+
+        MediaType contentType = request.getHeaders().getContentType();
+        TodoFileFormat importFormat = TodoFileFormat.from(
+                format != null ? format : contentType != null ? contentType.toString() : null);
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(todoService.importTodos(xUser, importFormat, request.getBody()));
+    }
+}
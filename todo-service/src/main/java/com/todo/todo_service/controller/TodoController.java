@@ -4,14 +4,24 @@ import com.todo.todo_service.generated.api.TodoApi;
 import com.todo.todo_service.generated.model.*;
 import com.todo.todo_service.service.TodoService;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
 
 @RestController
+@Profile("!reactive")
 public class TodoController implements TodoApi {
 
+    // Browsers and the gateway's per-user cache may keep the list but must revalidate it
+    // (If-None-Match) before every use. Not private: the gateway is a shared cache and would not
+    // store it. Other shared caches still cannot, since the requests carry Authorization and this
+    // sets neither public, s-maxage nor must-revalidate (RFC 9111 3.5).
+    static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache();
+
     private final TodoService todoService;
 
     public TodoController(TodoService todoService) {
@@ -33,10 +43,47 @@ public class TodoController implements TodoApi {
             LocalDate startDate,
             LocalDate endDate,
             @org.springframework.web.bind.annotation.RequestParam(defaultValue = "1") Integer page,
-            @org.springframework.web.bind.annotation.RequestParam(defaultValue = "10") Integer size) {
+            @org.springframework.web.bind.annotation.RequestParam(defaultValue = "10") Integer size,
+            String after,
+            Boolean exactTotal,
+            String ifNoneMatch) {
+
+        String etag = todoService.listEtag(xUser, status, search, startDate, endDate, page, size, after, exactTotal);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LIST_CACHE_CONTROL).build();
+        }
 
         PaginatedTodoResponse response = todoService.getFilteredTodos(
-                xUser, status, search, startDate, endDate, page, size);
+                xUser, status, search, startDate, endDate, page, size, after, exactTotal);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(response);
+    }
+
+    // Weak comparison (RFC 9110 13.1.2): W/ prefixes are ignored, "*" matches anything
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ResponseEntity<TodoSummary> getTodoSummary(String xUser) {
+        return ResponseEntity.ok(todoService.getSummary(xUser));
+    }
+
+    @Override
+    public ResponseEntity<BatchTodoResponse> batchTodos(
+            @jakarta.validation.constraints.NotNull String xUser,
+            @Valid BatchTodoRequest batchTodoRequest) {
+        BatchTodoResponse response = new BatchTodoResponse();
+        response.setResults(todoService.applyBatch(batchTodoRequest.getOperations(), xUser));
         return ResponseEntity.ok(response);
     }
 
@@ -58,8 +105,10 @@ public class TodoController implements TodoApi {
     }
 
     @Override
-    public ResponseEntity<DeleteTodo200Response> deleteTodo(Long id) {
-        todoService.deleteTodo(id);
+    public ResponseEntity<DeleteTodo200Response> deleteTodo(
+            @jakarta.validation.constraints.NotNull String xUser,
+            Long id) {
+        todoService.deleteTodo(id, xUser);
         DeleteTodo200Response res = new DeleteTodo200Response();
         res.setMessage("Todo deleted successfully");
         return ResponseEntity.ok(res);
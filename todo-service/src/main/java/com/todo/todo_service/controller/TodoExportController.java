@@ -0,0 +1,66 @@
+package com.todo.todo_service.controller;
+
+import com.todo.todo_service.config.AsyncTimeoutConfig;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.service.TodoExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+// GET /todos/export is documented in openapi.yml (tag "export") but written by hand:
+// the generated interfaces cannot return a streaming body
+@RestController
+@Profile("!reactive")
+public class TodoExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final TodoExportService exportService;
+    private final Duration timeout;
+
+    public TodoExportController(TodoExportService exportService,
+                                @Value("${todo.export.timeout:30m}") Duration timeout) {
+        this.exportService = exportService;
+        this.timeout = timeout;
+    }
+
+    @GetMapping("/todos/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @RequestHeader("X-User") String xUser,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletRequest request) {
+
+        TodoFileFormat exportFormat = TodoFileFormat.from(format);
+        String filename = exportFormat == TodoFileFormat.CSV ? "todos.csv" : "todos.ndjson";
+
+        // Runs on an async thread after the headers are sent; the service opens its own transaction.
+        // Large exports outlast the default async timeout, so this request gets its own.
+        request.setAttribute(AsyncTimeoutConfig.TIMEOUT_ATTRIBUTE, timeout);
+        StreamingResponseBody body = out ->
+                exportService.export(xUser, status, search, startDate, endDate, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == TodoFileFormat.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
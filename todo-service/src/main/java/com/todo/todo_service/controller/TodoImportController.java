@@ -0,0 +1,40 @@
+package com.todo.todo_service.controller;
+
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.service.TodoImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+// POST /todos/import is documented in openapi.yml (tag "import") but written by hand:
+// the body is read and the report written incrementally, which the generated interfaces cannot express
+@RestController
+@Profile("!reactive")
+public class TodoImportController {
+
+    private final TodoImportService importService;
+
+    public TodoImportController(TodoImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/todos/import")
+    public void importTodos(
+            @RequestHeader("X-User") String xUser,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        TodoFileFormat importFormat = TodoFileFormat.from(format != null ? format : request.getContentType());
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        importService.importTodos(xUser, importFormat, request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,40 @@
+package com.todo.todo_service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.todo_service.event.TodoChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Users who committed a write within the read-your-writes window. ReplicaRoutingDataSource
+ * keeps their read-only transactions on the primary until replication has had time to catch up,
+ * so a list fetched right after a create always contains it.
+ * <p>
+ * Like the page cache this only sees writes made through this instance; with several
+ * todo-service instances a user's next read may land on one that does not know about the write.
+ */
+public class RecentWriters {
+
+    private final Cache<String, Boolean> writers;
+
+    public RecentWriters(Duration window) {
+        this.writers = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void record(String username) {
+        writers.put(username, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(String username) {
+        return username != null && writers.getIfPresent(username) != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        record(event.username());
+    }
+}
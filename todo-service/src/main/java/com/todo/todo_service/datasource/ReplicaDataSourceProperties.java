@@ -0,0 +1,26 @@
+package com.todo.todo_service.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for todo-service's JDBC stack. With no replicas configured the primary
+ * spring.datasource is used for everything, exactly as before.
+ */
+@ConfigurationProperties("todo.datasource")
+public record ReplicaDataSourceProperties(
+        @DefaultValue List<Replica> replicas,
+        // How long a user's read-only transactions stay on the primary after that user's write
+        @DefaultValue("2s") Duration readYourWritesWindow,
+        // Ejected replicas are re-probed on the same schedule; 0 disables the background check
+        @DefaultValue("5s") Duration healthCheckInterval,
+        // Kept short so a dead replica costs a request this much before it falls back to the primary
+        @DefaultValue("1s") Duration connectionTimeout,
+        @DefaultValue("10") int maximumPoolSize) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
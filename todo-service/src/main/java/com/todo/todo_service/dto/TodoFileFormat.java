@@ -0,0 +1,13 @@
+package com.todo.todo_service.dto;
+
+import java.util.Locale;
+
+// Body formats of the bulk export and import endpoints
+public enum TodoFileFormat {
+    NDJSON, CSV;
+
+    // "csv" (any case) or a text/csv content type selects CSV; everything else is NDJSON
+    public static TodoFileFormat from(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains("csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,14 @@
+package com.todo.todo_service.dto;
+
+import java.time.OffsetDateTime;
+
+// Read-only row for list queries: selected with a JPQL constructor expression, never managed by Hibernate
+public record TodoView(
+        Long id,
+        String username,
+        String title,
+        String description,
+        boolean completed,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt) {
+}
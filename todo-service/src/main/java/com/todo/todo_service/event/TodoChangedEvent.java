@@ -0,0 +1,30 @@
+package com.todo.todo_service.event;
+
+import com.todo.todo_service.model.Todo;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by TodoService for every write. In-process views of a user's todos
+ * (search index, caches) listen for it after the transaction commits.
+ */
+public record TodoChangedEvent(
+        Type type,
+        String username,
+        Long id,
+        String title,
+        boolean completed,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt) {
+
+    public enum Type {UPSERTED, DELETED}
+
+    public static TodoChangedEvent upserted(Todo todo) {
+        return new TodoChangedEvent(Type.UPSERTED, todo.getUsername(), todo.getId(),
+                todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(), todo.getUpdatedAt());
+    }
+
+    public static TodoChangedEvent deleted(String username, Long id) {
+        return new TodoChangedEvent(Type.DELETED, username, id, null, false, null, null);
+    }
+}
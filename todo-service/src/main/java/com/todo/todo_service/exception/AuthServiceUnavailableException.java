@@ -0,0 +1,7 @@
+package com.todo.todo_service.exception;
+
+public class AuthServiceUnavailableException extends RuntimeException {
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,27 +15,44 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
+@Profile("!reactive")
 public class GatewayHeaderAuthFilter extends OncePerRequestFilter {
 
+    // JSON lines, sampled by status; logback-spring.xml writes them through a non-blocking AsyncAppender
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    // Tells the gateway's response cache to drop the user's entries; set on every write
+    static final String INVALIDATE_USER_HEADER = "X-Cache-Invalidate-User";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final double successSampleRate;
+    private final double errorSampleRate;
+
+    public GatewayHeaderAuthFilter(@Value("${todo.access-log.sample-rate.success:0.01}") double successSampleRate,
+                                   @Value("${todo.access-log.sample-rate.error:1.0}") double errorSampleRate) {
+        this.successSampleRate = successSampleRate;
+        this.errorSampleRate = errorSampleRate;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws IOException, ServletException {
-//        request.setAttribute("X-User", "ralo");
-
+        long startedAt = System.nanoTime();
         String xUser = request.getHeader("X-User");
         String xRoles = request.getHeader("X-Roles");
-        System.out.println("\n\n\n\n" + xUser + " and " + xRoles);
-//        String xUser = "ralo";
-//        String xRoles = "ROLE_USER";
 
         if (xUser == null || xUser.isBlank()) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"error\":\"Missing X-User header\"}");
+            logAccess(request, response.getStatus(), null, startedAt);
             return;
         }
 
@@ -44,7 +65,52 @@ public class GatewayHeaderAuthFilter extends OncePerRequestFilter {
                 new UsernamePasswordAuthenticationToken(xUser, null, authorities);
         SecurityContextHolder.getContext().setAuthentication(auth);
 
-        filterChain.doFilter(request, response);
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            response.setHeader(INVALIDATE_USER_HEADER, xUser);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Async exports finish later on another thread; their line records the handoff
+            logAccess(request, response.getStatus(), xUser, startedAt);
+        }
+    }
+
+    private void logAccess(HttpServletRequest request, int status, String user, long startedAt) {
+        double rate = status >= 400 ? errorSampleRate : successSampleRate;
+        boolean sampled = rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+        if (!sampled || !accessLog.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(200);
+        line.append("{\"ts\":\"").append(Instant.now()).append('"');
+        field(line, "requestId", request.getHeader("X-Request-Id"));
+        field(line, "method", request.getMethod());
+        field(line, "path", request.getRequestURI());
+        line.append(",\"status\":").append(status);
+        line.append(",\"durationMs\":").append((System.nanoTime() - startedAt) / 1000 / 1000.0);
+        field(line, "user", user);
+        line.append('}');
+        accessLog.info(line.toString());
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
     }
 }
 
@@ -0,0 +1,50 @@
+package com.todo.todo_service.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// GatewayHeaderAuthFilter for the reactive profile: trusts the X-User / X-Roles headers set by the gateway
+public class GatewayHeaderAuthWebFilter implements WebFilter {
+
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+    private static final byte[] MISSING_USER = "{\"error\":\"Missing X-User header\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String xUser = exchange.getRequest().getHeaders().getFirst("X-User");
+        String xRoles = exchange.getRequest().getHeaders().getFirst("X-Roles");
+
+        if (xUser == null || xUser.isBlank()) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer body = exchange.getResponse().bufferFactory().wrap(MISSING_USER);
+            return exchange.getResponse().writeWith(Mono.just(body));
+        }
+
+        List<SimpleGrantedAuthority> authorities = xRoles == null ? List.of() : Arrays.stream(xRoles.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(xUser, null, authorities);
+        if (!SAFE_METHODS.contains(exchange.getRequest().getMethod())) {
+            exchange.getResponse().getHeaders().set(GatewayHeaderAuthFilter.INVALIDATE_USER_HEADER, xUser);
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+    }
+}
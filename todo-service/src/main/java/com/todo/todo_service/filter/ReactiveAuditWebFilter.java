@@ -0,0 +1,137 @@
+package com.todo.todo_service.filter;
+
+import com.todo.audit_service.audit.AuditLog;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * The audit-service AuditAspect for the reactive profile, which has no servlet request and no
+ * JPA: after a controller method has handled the exchange without error, the same audit_logs
+ * row is inserted through R2DBC. The insert is part of the exchange, so a record is not lost
+ * to shutdown, and a failed insert is logged without failing the request.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveAuditWebFilter implements WebFilter {
+
+    private static final Pattern CREATE_PATTERN = Pattern.compile(".*(create|save|add|register).*");
+    private static final Pattern UPDATE_PATTERN = Pattern.compile(".*(update|edit|patch).*");
+    private static final Pattern DELETE_PATTERN = Pattern.compile(".*(delete|remove).*");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAuditWebFilter(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange).then(Mono.defer(() -> audit(exchange)));
+    }
+
+    private Mono<Void> audit(ServerWebExchange exchange) {
+        // Same scope as the aspect's execution(* *..*Controller.*(..)), and only for handled requests
+        HandlerMethod handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod h
+                ? h : null;
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (handler == null || !handler.getBeanType().getSimpleName().endsWith("Controller")
+                || (status != null && status.isError())) {
+            return Mono.empty();
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        // ReactiveTodoController records as "Todo", like the MVC TodoController
+        String service = handler.getBeanType().getSimpleName().replace("Controller", "").replaceFirst("^Reactive", "");
+
+        SpanContext span = traceContext(request);
+        InetSocketAddress remote = request.getRemoteAddress();
+
+        return databaseClient.sql("""
+                        INSERT INTO audit_logs (trace_id, span_id, trace_flags, request_id, user_id,
+                                                action, service, ip_address, details, timestamp)
+                        VALUES (:traceId, :spanId, :traceFlags, :requestId, :userId,
+                                :action, :service, :ipAddress, :details, :timestamp)
+                        """)
+                .bind("traceId", span.getTraceId())
+                .bind("spanId", span.getSpanId())
+                .bind("traceFlags", span.isSampled() ? "01" : "00")
+                .bind("requestId", header(request, "X-Request-Id", "NO-ID"))
+                .bind("userId", header(request, "X-User", "ANONYMOUS"))
+                .bind("action", determineAction(handler.getMethod().getName().toLowerCase(Locale.ROOT)).name())
+                .bind("service", service)
+                .bind("ipAddress", nullable(remote != null && remote.getAddress() != null
+                        ? remote.getAddress().getHostAddress() : null))
+                .bind("details", "{}")
+                .bind("timestamp", LocalDateTime.now())
+                .then()
+                .onErrorResume(e -> {
+                    log.error("AUDIT FAILED | method={} | error={}", handler.getShortLogMessage(), e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    // trace_id and span_id are NOT NULL, so a request without a current span takes the gateway's
+    // W3C traceparent, and one without either gets fresh ids for an unsampled trace rather than no row
+    private static SpanContext traceContext(ServerHttpRequest request) {
+        SpanContext current = Span.current().getSpanContext();
+        if (current.isValid()) {
+            return current;
+        }
+        String traceparent = request.getHeaders().getFirst("traceparent");
+        String[] parts = traceparent != null ? traceparent.split("-") : new String[0];
+        if (parts.length == 4 && parts[3].length() == 2) {
+            SpanContext remote = SpanContext.createFromRemoteParent(parts[1], parts[2],
+                    TraceFlags.fromHex(parts[3], 0), TraceState.getDefault());
+            if (remote.isValid()) {
+                return remote;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return SpanContext.create(
+                TraceId.fromLongs(random.nextLong(), random.nextLong() | 1),
+                SpanId.fromLong(random.nextLong() | 1),
+                TraceFlags.getDefault(),
+                TraceState.getDefault());
+    }
+
+    private static Parameter nullable(String value) {
+        return Parameter.fromOrEmpty(value, String.class);
+    }
+
+    private static String header(ServerHttpRequest request, String name, String fallback) {
+        String value = request.getHeaders().getFirst(name);
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+
+    private static AuditLog.Action determineAction(String methodName) {
+        if (methodName.contains("login")) return AuditLog.Action.LOGIN_SUCCESS;
+        if (CREATE_PATTERN.matcher(methodName).matches()) return AuditLog.Action.CREATE;
+        if (UPDATE_PATTERN.matcher(methodName).matches()) return AuditLog.Action.UPDATE;
+        if (DELETE_PATTERN.matcher(methodName).matches()) return AuditLog.Action.DELETE;
+        return AuditLog.Action.READ;
+    }
+}
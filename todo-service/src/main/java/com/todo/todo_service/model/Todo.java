@@ -8,14 +8,30 @@ import lombok.NoArgsConstructor;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        // Serves both the OFFSET page query and the keyset (cursor) seek
+        @Index(name = "idx_todos_username_created_at_id", columnList = "username, created_at, id"),
+        // Search index catch-up: rows written since its last pass (TodoSearchIndex)
+        @Index(name = "idx_todos_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Todo {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table generator instead of IDENTITY: ids are known before the INSERT,
+    // so Hibernate can batch inserts (see TodoIdGeneratorConfig for aligning existing rows)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "todo_id")
+    @TableGenerator(
+            name = "todo_id",
+            table = "todo_id_sequence",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "todos",
+            allocationSize = Todo.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
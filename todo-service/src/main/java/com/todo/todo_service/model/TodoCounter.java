@@ -0,0 +1,39 @@
+package com.todo.todo_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user todo totals, maintained incrementally by the TodoService write methods
+ * so unfiltered list requests never need a COUNT(*). version goes up with every write
+ * to the user's todos, in the same transaction, and identifies the list for ETags and
+ * the page cache on every instance.
+ */
+@Entity
+@Table(name = "todo_counters")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoCounter {
+
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long completed;
+
+    @Column(nullable = false)
+    private long version;
+
+    public long getPending() {
+        return total - completed;
+    }
+}
@@ -0,0 +1,44 @@
+package com.todo.todo_service.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * R2DBC mapping of the todos table used by the reactive profile (Todo is the JPA entity).
+ * Timestamps are kept as local date-times in the JVM zone, which is how Hibernate writes
+ * OffsetDateTime to a MySQL DATETIME column, so rows written by either stack read the same.
+ */
+@Table("todos")
+public record TodoRow(@Id Long id,
+                      String username,
+                      String title,
+                      String description,
+                      boolean completed,
+                      LocalDateTime createdAt,
+                      LocalDateTime updatedAt) {
+
+    public static TodoRow create(Long id, String username, String title, String description, boolean completed) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoRow(id, username, title, description, completed, now, now);
+    }
+
+    public TodoRow withContent(String title, String description, boolean completed) {
+        return new TodoRow(id, username, title, description, completed, createdAt, LocalDateTime.now());
+    }
+
+    public TodoRow withCompleted(boolean completed) {
+        return new TodoRow(id, username, title, description, completed, createdAt, LocalDateTime.now());
+    }
+
+    public static LocalDateTime toLocal(OffsetDateTime value) {
+        return value != null ? value.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+
+    public static OffsetDateTime toOffset(LocalDateTime value) {
+        return value != null ? value.atZone(ZoneId.systemDefault()).toOffsetDateTime() : null;
+    }
+}
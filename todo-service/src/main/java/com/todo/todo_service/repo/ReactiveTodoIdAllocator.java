@@ -0,0 +1,94 @@
+package com.todo.todo_service.repo;
+
+import com.todo.todo_service.model.Todo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of Hibernate's pooled table generator on Todo. Blocks of
+ * Todo.ID_ALLOCATION_SIZE ids are reserved from the same todo_id_sequence row with the same
+ * read + compare-and-set update, so MVC and reactive instances can share a database.
+ * A reservation commits on its own: ids handed out are never reused, even if the insert
+ * that took one rolls back.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveTodoIdAllocator {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 10;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator ownTransaction;
+    private long next = 1;
+    private long hi = 0;
+
+    public ReactiveTodoIdAllocator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ownTransaction = TransactionalOperator.create(transactionManager, definition);
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = takeFromBlock();
+            return id != null ? Mono.just(id) : reserveBlock().map(this::installAndTake);
+        });
+    }
+
+    private synchronized Long takeFromBlock() {
+        return next <= hi ? next++ : null;
+    }
+
+    // The caller that reserved a block takes its first id; the rest replaces the current block
+    // only if that one has run out meanwhile, otherwise it is abandoned (a gap, never a duplicate)
+    private synchronized long installAndTake(long blockHi) {
+        long first = blockHi - Todo.ID_ALLOCATION_SIZE + 1;
+        if (next > hi) {
+            next = first + 1;
+            hi = blockHi;
+        }
+        return first;
+    }
+
+    // Like Hibernate's TableGenerator: the value read is the top of the reserved block
+    // (value - size, value], and next_val moves up by one block. A lost race updates no row and retries.
+    private Mono<Long> reserveBlock() {
+        return databaseClient.sql("SELECT next_val FROM todo_id_sequence WHERE sequence_name = 'todos'")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(initialiseSequence())
+                .flatMap(value -> databaseClient.sql("""
+                                UPDATE todo_id_sequence SET next_val = :next
+                                WHERE sequence_name = 'todos' AND next_val = :value
+                                """)
+                        .bind("next", value + Todo.ID_ALLOCATION_SIZE)
+                        .bind("value", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(rows -> rows == 1)
+                        .map(rows -> value))
+                .as(ownTransaction::transactional)   // per attempt, so a retry reads a fresh snapshot
+                .repeatWhenEmpty(MAX_RESERVE_ATTEMPTS, attempts -> attempts);
+    }
+
+    // First use against a database the MVC stack has not started on yet: place the first block above existing ids
+    private Mono<Long> initialiseSequence() {
+        return databaseClient.sql("""
+                        INSERT INTO todo_id_sequence (sequence_name, next_val)
+                        SELECT 'todos', COALESCE(MAX(id), 0) + :size FROM todos
+                        """)
+                .bind("size", Todo.ID_ALLOCATION_SIZE)
+                .fetch()
+                .rowsUpdated()
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty())   // a concurrent insert won
+                .then(Mono.empty());
+    }
+}
@@ -0,0 +1,205 @@
+package com.todo.todo_service.repo;
+
+import com.todo.todo_service.model.TodoRow;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+/**
+ * R2DBC equivalent of the TodoRepository queries used by the reactive profile. Filters are
+ * the ones of TodoRepository.findByFilters; instead of ":param IS NULL OR ..." the criteria
+ * are only added when set, which also keeps the statements free of untyped null binds.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoRepository {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private final R2dbcEntityTemplate template;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTodoRepository(R2dbcEntityTemplate template) {
+        this.template = template;
+        this.databaseClient = template.getDatabaseClient();
+    }
+
+    // One page of the filtered list (newest first); limit is size + 1 when the caller wants to know about a next page
+    public Flux<TodoRow> findByFilters(String username, String status, String search,
+                                       LocalDateTime start, LocalDateTime end, long offset, int limit) {
+        Query query = Query.query(filters(username, status, search, start, end))
+                .sort(NEWEST_FIRST)
+                .offset(offset)
+                .limit(limit);
+        return template.select(query, TodoRow.class);
+    }
+
+    public Mono<Long> countByFilters(String username, String status, String search,
+                                     LocalDateTime start, LocalDateTime end) {
+        return template.count(Query.query(filters(username, status, search, start, end)), TodoRow.class);
+    }
+
+    // Keyset seek: rows strictly after (createdAt, id) in the newest-first ordering
+    public Flux<TodoRow> findByFiltersAfter(String username, String status, String search,
+                                            LocalDateTime start, LocalDateTime end,
+                                            LocalDateTime cursorCreatedAt, long cursorId, int limit) {
+        Criteria seek = where("createdAt").lessThan(cursorCreatedAt)
+                .or(where("createdAt").is(cursorCreatedAt).and("id").lessThan(cursorId));
+        Query query = Query.query(filters(username, status, search, start, end).and(seek))
+                .sort(NEWEST_FIRST)
+                .limit(limit);
+        return template.select(query, TodoRow.class);
+    }
+
+    // Every matching row, newest first, as the driver delivers them (export)
+    public Flux<TodoRow> streamByFilters(String username, String status, String search,
+                                         LocalDateTime start, LocalDateTime end) {
+        return template.select(Query.query(filters(username, status, search, start, end)).sort(NEWEST_FIRST),
+                TodoRow.class);
+    }
+
+    public Mono<TodoRow> findById(Long id) {
+        return template.selectOne(Query.query(where("id").is(id)), TodoRow.class);
+    }
+
+    public Flux<TodoRow> findAllById(Collection<Long> ids) {
+        return ids.isEmpty() ? Flux.empty() : template.select(Query.query(where("id").in(ids)), TodoRow.class);
+    }
+
+    public Mono<String> findOwnerById(Long id) {
+        return databaseClient.sql("SELECT username FROM todos WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("username", String.class))
+                .one();
+    }
+
+    // Always an INSERT: the id is assigned up front by ReactiveTodoIdAllocator
+    public Mono<TodoRow> insert(TodoRow todo) {
+        return template.insert(TodoRow.class).using(todo);
+    }
+
+    public Mono<TodoRow> update(TodoRow todo) {
+        return template.update(todo);
+    }
+
+    // Same as TodoRepository.findOwnedForUpdate: the caller's own todo, locked until the transaction ends
+    public Mono<TodoRow> findOwnedForUpdate(Long id, String username) {
+        return databaseClient.sql("SELECT * FROM todos WHERE id = :id AND username = :username FOR UPDATE")
+                .bind("id", id)
+                .bind("username", username)
+                .map((row, metadata) -> template.getConverter().read(TodoRow.class, row, metadata))
+                .one();
+    }
+
+    // Rows updated: 0 also when the todo is already in the requested state
+    public Mono<Long> setCompleted(Long id, String username, boolean completed, LocalDateTime now) {
+        return template.update(TodoRow.class)
+                .matching(Query.query(where("id").is(id).and("username").is(username)
+                        .and("completed").not(completed)))
+                .apply(Update.update("completed", completed).set("updatedAt", now));
+    }
+
+    public Mono<Void> delete(TodoRow todo) {
+        return template.delete(todo).then();
+    }
+
+    public Mono<Long> deleteAllById(Collection<Long> ids) {
+        return ids.isEmpty() ? Mono.just(0L) : template.delete(TodoRow.class)
+                .matching(Query.query(where("id").in(ids)))
+                .all();
+    }
+
+    // Same statement as TodoRepository.findDateRange; both ends are null when the user has no todos
+    public Mono<DateRange> findDateRange(String username) {
+        return databaseClient.sql("""
+                        SELECT MIN(created_at) AS oldest, MAX(created_at) AS newest
+                        FROM todos
+                        WHERE username = :username
+                        """)
+                .bind("username", username)
+                .map(row -> new DateRange(row.get("oldest", LocalDateTime.class), row.get("newest", LocalDateTime.class)))
+                .one();
+    }
+
+    // The user's list version, as TodoCounterService.version reads it; 0 until their first write
+    public Mono<Long> findVersion(String username) {
+        return databaseClient.sql("SELECT version FROM todo_counters WHERE username = :username")
+                .bind("username", username)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    // Same statements as TodoCounterService.adjust, run for every write so the list version moves
+    // for MVC instances too: the UPDATE, or when the user has no row yet an
+    // INSERT from this transaction's COUNTs, falling back to the UPDATE if another writer won the insert
+    public Mono<Long> adjustCounters(String username, long totalDelta, long completedDelta) {
+        return updateCounters(username, totalDelta, completedDelta)
+                .flatMap(rows -> rows > 0 ? Mono.just(rows) : insertCounters(username)
+                        .onErrorResume(DataIntegrityViolationException.class,
+                                e -> updateCounters(username, totalDelta, completedDelta)));
+    }
+
+    private Mono<Long> updateCounters(String username, long totalDelta, long completedDelta) {
+        return databaseClient.sql("""
+                        UPDATE todo_counters
+                        SET total = total + :totalDelta,
+                            completed = completed + :completedDelta,
+                            version = version + 1
+                        WHERE username = :username
+                        """)
+                .bind("totalDelta", totalDelta)
+                .bind("completedDelta", completedDelta)
+                .bind("username", username)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> insertCounters(String username) {
+        return databaseClient.sql("""
+                        INSERT INTO todo_counters (username, total, completed, version)
+                        SELECT :username, COUNT(*), COALESCE(SUM(CASE WHEN completed THEN 1 ELSE 0 END), 0), 1
+                        FROM todos
+                        WHERE username = :username
+                        """)
+                .bind("username", username)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Criteria filters(String username, String status, String search,
+                                    LocalDateTime start, LocalDateTime end) {
+        Criteria criteria = where("username").is(username);
+        if ("completed".equals(status)) {
+            criteria = criteria.and("completed").isTrue();
+        } else if ("pending".equals(status)) {
+            criteria = criteria.and("completed").isFalse();
+        }
+        if (search != null) {
+            criteria = criteria.and("title").like("%" + search + "%").ignoreCase(true);
+        }
+        if (start != null) {
+            criteria = criteria.and("createdAt").greaterThanOrEquals(start);
+        }
+        if (end != null) {
+            criteria = criteria.and("createdAt").lessThanOrEquals(end);
+        }
+        return criteria;
+    }
+
+    public record DateRange(LocalDateTime oldest, LocalDateTime newest) {
+    }
+}
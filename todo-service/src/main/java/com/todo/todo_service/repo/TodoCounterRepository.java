@@ -0,0 +1,28 @@
+package com.todo.todo_service.repo;
+
+import com.todo.todo_service.model.TodoCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TodoCounterRepository extends JpaRepository<TodoCounter, String> {
+
+    // Returns 0 when the user's row does not exist yet; TodoCounterService then creates it
+    @Modifying
+    @Query("""
+            UPDATE TodoCounter c
+            SET c.total = c.total + :totalDelta,
+                c.completed = c.completed + :completedDelta,
+                c.version = c.version + 1
+            WHERE c.username = :username
+            """)
+    int adjust(@Param("username") String username,
+               @Param("totalDelta") long totalDelta,
+               @Param("completedDelta") long completedDelta);
+
+    @Query("SELECT c.version FROM TodoCounter c WHERE c.username = :username")
+    Optional<Long> findVersion(@Param("username") String username);
+}
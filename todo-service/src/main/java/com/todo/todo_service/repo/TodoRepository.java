@@ -1,14 +1,21 @@
 package com.todo.todo_service.repo;
 
+import com.todo.todo_service.dto.TodoView;
 import com.todo.todo_service.model.Todo;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TodoRepository extends JpaRepository<Todo, Long> {
 
@@ -16,6 +23,10 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
 
     List<Todo> findByUsernameAndCompleted(String username, boolean completed);
 
+    long countByUsername(String username);
+
+    long countByUsernameAndCompleted(String username, boolean completed);
+
 //    @Query("""
 //                SELECT t FROM Todo t
 //                WHERE t.username = :username
@@ -52,4 +63,166 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
             @Param("startDate") OffsetDateTime startDate,
             @Param("endDate") OffsetDateTime endDate,
             Pageable pageable);
-}
\ No newline at end of file
+
+    // Projection reads for the list endpoint. They select straight into TodoView, so no entity
+    // is hydrated, tracked in the persistence context or dirty-checked at flush.
+    @Query(value = """
+            SELECT new com.todo.todo_service.dto.TodoView(
+                t.id, t.username, t.title, t.description, t.completed, t.createdAt, t.updatedAt)
+            FROM Todo t
+            WHERE t.username = :username
+              AND (:status = 'all'
+                   OR (:status = 'completed' AND t.completed = TRUE)
+                   OR (:status = 'pending' AND t.completed = FALSE))
+              AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')))
+              AND (:startDate IS NULL OR t.createdAt >= :startDate)
+              AND (:endDate IS NULL OR t.createdAt <= :endDate)
+            """,
+            countQuery = """
+            SELECT COUNT(t) FROM Todo t
+            WHERE t.username = :username
+              AND (:status = 'all'
+                   OR (:status = 'completed' AND t.completed = TRUE)
+                   OR (:status = 'pending' AND t.completed = FALSE))
+              AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')))
+              AND (:startDate IS NULL OR t.createdAt >= :startDate)
+              AND (:endDate IS NULL OR t.createdAt <= :endDate)
+            """)
+    Page<TodoView> findViewsByFilters(
+            @Param("username") String username,
+            @Param("status") String status,
+            @Param("search") String search,
+            @Param("startDate") OffsetDateTime startDate,
+            @Param("endDate") OffsetDateTime endDate,
+            Pageable pageable);
+
+    // Same filters as findViewsByFilters but returned as a Slice, so Spring Data skips the COUNT query
+    @Query("""
+            SELECT new com.todo.todo_service.dto.TodoView(
+                t.id, t.username, t.title, t.description, t.completed, t.createdAt, t.updatedAt)
+            FROM Todo t
+            WHERE t.username = :username
+              AND (:status = 'all'
+                   OR (:status = 'completed' AND t.completed = TRUE)
+                   OR (:status = 'pending' AND t.completed = FALSE))
+              AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')))
+              AND (:startDate IS NULL OR t.createdAt >= :startDate)
+              AND (:endDate IS NULL OR t.createdAt <= :endDate)
+            """)
+    Slice<TodoView> findSliceByFilters(
+            @Param("username") String username,
+            @Param("status") String status,
+            @Param("search") String search,
+            @Param("startDate") OffsetDateTime startDate,
+            @Param("endDate") OffsetDateTime endDate,
+            Pageable pageable);
+
+    // Keyset variant: seeks past (afterCreatedAt, afterId) instead of using OFFSET, and
+    // returns a Slice so no COUNT query is issued.
+    @Query("""
+            SELECT new com.todo.todo_service.dto.TodoView(
+                t.id, t.username, t.title, t.description, t.completed, t.createdAt, t.updatedAt)
+            FROM Todo t
+            WHERE t.username = :username
+              AND (:status = 'all'
+                   OR (:status = 'completed' AND t.completed = TRUE)
+                   OR (:status = 'pending' AND t.completed = FALSE))
+              AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')))
+              AND (:startDate IS NULL OR t.createdAt >= :startDate)
+              AND (:endDate IS NULL OR t.createdAt <= :endDate)
+              AND (t.createdAt < :afterCreatedAt
+                   OR (t.createdAt = :afterCreatedAt AND t.id < :afterId))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    Slice<TodoView> findByFiltersAfter(
+            @Param("username") String username,
+            @Param("status") String status,
+            @Param("search") String search,
+            @Param("startDate") OffsetDateTime startDate,
+            @Param("endDate") OffsetDateTime endDate,
+            @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Rows for ids resolved by the search index, in no particular order
+    @Query("""
+            SELECT new com.todo.todo_service.dto.TodoView(
+                t.id, t.username, t.title, t.description, t.completed, t.createdAt, t.updatedAt)
+            FROM Todo t
+            WHERE t.id IN :ids
+            """)
+    List<TodoView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ownership-checked single-statement toggle. Returns the matched row count; 0 means missing,
+    // owned by someone else, or already in the requested state.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Todo t
+            SET t.completed = :completed, t.updatedAt = :now
+            WHERE t.id = :id AND t.username = :username AND t.completed <> :completed
+            """)
+    int setCompleted(@Param("id") Long id,
+                     @Param("username") String username,
+                     @Param("completed") boolean completed,
+                     @Param("now") OffsetDateTime now);
+
+    // The caller's own todo, row-locked (SELECT ... FOR UPDATE) until the transaction ends, for
+    // writes that need its current state: the update or delete that follows is then a single
+    // statement by id, and the completed flag read here says which counter bucket changes.
+    // Empty when the todo is missing or owned by someone else.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Todo t WHERE t.id = :id AND t.username = :username")
+    Optional<Todo> findOwnedForUpdate(@Param("id") Long id, @Param("username") String username);
+
+    // Both ends of idx_todos_username_created_at_id for the user; nulls when they have no todos
+    @Query("SELECT MIN(t.createdAt) AS oldest, MAX(t.createdAt) AS newest FROM Todo t WHERE t.username = :username")
+    TodoDateRange findDateRange(@Param("username") String username);
+
+    // Only used to tell 404 from 403 after a write matched no rows
+    @Query("SELECT t.username FROM Todo t WHERE t.id = :id")
+    Optional<String> findOwnerById(@Param("id") Long id);
+
+    // Columns needed by the in-process search index, read in id order for chunked rebuilds
+    @Query("""
+            SELECT t.id AS id, t.username AS username, t.title AS title,
+                   t.completed AS completed, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Todo t
+            WHERE t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<TodoIndexRow> findIndexRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Rows written since a point in time, in (updatedAt, id) order, for the search index catch-up;
+    // keyset chunks start strictly after (afterUpdatedAt, afterId)
+    @Query("""
+            SELECT t.id AS id, t.username AS username, t.title AS title,
+                   t.completed AS completed, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Todo t
+            WHERE t.updatedAt > :afterUpdatedAt
+               OR (t.updatedAt = :afterUpdatedAt AND t.id > :afterId)
+            ORDER BY t.updatedAt, t.id
+            """)
+    List<TodoIndexRow> findIndexRowsUpdatedAfter(@Param("afterUpdatedAt") OffsetDateTime afterUpdatedAt,
+                                                 @Param("afterId") long afterId,
+                                                 Pageable pageable);
+
+    interface TodoIndexRow {
+        Long getId();
+
+        String getUsername();
+
+        String getTitle();
+
+        boolean isCompleted();
+
+        OffsetDateTime getCreatedAt();
+
+        OffsetDateTime getUpdatedAt();
+    }
+
+    interface TodoDateRange {
+        OffsetDateTime getOldest();
+
+        OffsetDateTime getNewest();
+    }
+}
@@ -0,0 +1,295 @@
+package com.todo.todo_service.search;
+
+import com.todo.todo_service.event.TodoChangedEvent;
+import com.todo.todo_service.repo.TodoRepository;
+import com.todo.todo_service.util.TodoCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process trigram index over todo titles, so title searches resolve ids in memory
+ * instead of running a LIKE '%term%' scan in MySQL. It is rebuilt from the database at
+ * startup and kept current by TodoChangedEvent after each commit. Until the rebuild has
+ * finished, isReady() is false and callers fall back to the LIKE query; a failed rebuild
+ * is retried after retry-delay.
+ * <p>
+ * Writes made through other instances are picked up every catch-up-interval by reading the
+ * rows whose updatedAt is newer than the previous pass, minus catch-up-overlap to cover
+ * commit latency, replica lag and clock skew. Search results can therefore lag such writes by
+ * about catch-up-interval, which is why the index is off by default. Deletes made elsewhere
+ * are not seen: their ids no longer load and drop out of the results, but still count in
+ * totals until the next rebuild.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TodoSearchIndex implements DisposableBean {
+
+    private static final int REBUILD_CHUNK_SIZE = 5_000;
+
+    private static final Comparator<UserTrigramIndex.Entry> NEWEST_FIRST =
+            Comparator.comparingLong(UserTrigramIndex.Entry::createdAtNanos)
+                    .thenComparingLong(UserTrigramIndex.Entry::id)
+                    .reversed();
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Duration catchUpInterval;
+    private final Duration catchUpOverlap;
+    private final Duration retryDelay;
+
+    private final ConcurrentMap<String, UserTrigramIndex> users = new ConcurrentHashMap<>();
+    private final List<TodoChangedEvent> pendingDuringRebuild = new ArrayList<>();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+    private volatile OffsetDateTime caughtUpTo;
+    private ScheduledExecutorService worker;
+
+    public TodoSearchIndex(TodoRepository todoRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${todo.search.index.enabled:false}") boolean enabled,
+                           @Value("${todo.search.index.catch-up-interval:5s}") Duration catchUpInterval,
+                           @Value("${todo.search.index.catch-up-overlap:10s}") Duration catchUpOverlap,
+                           @Value("${todo.search.index.retry-delay:30s}") Duration retryDelay) {
+        this.todoRepository = todoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.catchUpInterval = catchUpInterval;
+        this.catchUpOverlap = catchUpOverlap;
+        this.retryDelay = retryDelay;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // Rebuild, retries and catch-up passes all run on one background thread, so they never overlap
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            worker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("todo-search-index")
+                    .daemon(true)
+                    .factory());
+            worker.execute(this::rebuildOrRetry);
+            long millis = catchUpInterval.toMillis();
+            worker.scheduleWithFixedDelay(this::catchUp, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    private void rebuildOrRetry() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Todo search index rebuild failed, retrying | in={}", retryDelay, e);
+            worker.schedule(this::rebuildOrRetry, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Reloads every title from the database; writes that commit meanwhile are replayed afterwards.
+    // On failure the index stays not ready (searches use LIKE) and the exception propagates.
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        OffsetDateTime catchUpFrom = OffsetDateTime.now().minus(catchUpOverlap);
+        synchronized (pendingDuringRebuild) {
+            rebuilding = true;
+            ready = false;
+        }
+        try {
+            users.clear();
+
+            // Keyset chunks by id keep memory flat and avoid holding one long-running read transaction
+            long lastId = 0;
+            List<TodoRepository.TodoIndexRow> chunk;
+            do {
+                long after = lastId;
+                chunk = readOnlyTransaction.execute(status ->
+                        todoRepository.findIndexRowsAfter(after, PageRequest.of(0, REBUILD_CHUNK_SIZE)));
+                for (TodoRepository.TodoIndexRow row : chunk) {
+                    upsert(row);
+                    lastId = row.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+
+            synchronized (pendingDuringRebuild) {
+                pendingDuringRebuild.forEach(this::apply);
+                caughtUpTo = catchUpFrom;
+                ready = true;
+            }
+            log.info("Todo search index rebuilt | users={} | took={}ms",
+                    users.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            synchronized (pendingDuringRebuild) {
+                pendingDuringRebuild.clear();
+                rebuilding = false;
+                if (!ready) {
+                    users.clear();
+                }
+            }
+        }
+    }
+
+    // Applies rows written since the previous pass, including those written through other instances
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        OffsetDateTime nextFrom = OffsetDateTime.now().minus(catchUpOverlap);
+        try {
+            OffsetDateTime afterUpdatedAt = caughtUpTo;
+            long afterId = 0;
+            List<TodoRepository.TodoIndexRow> chunk;
+            do {
+                OffsetDateTime fromUpdatedAt = afterUpdatedAt;
+                long fromId = afterId;
+                chunk = readOnlyTransaction.execute(status -> todoRepository.findIndexRowsUpdatedAfter(
+                        fromUpdatedAt, fromId, PageRequest.of(0, REBUILD_CHUNK_SIZE)));
+                for (TodoRepository.TodoIndexRow row : chunk) {
+                    upsert(row);
+                    afterUpdatedAt = row.getUpdatedAt();
+                    afterId = row.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            caughtUpTo = nextFrom;
+        } catch (RuntimeException e) {
+            // The next pass starts from the same point
+            log.warn("Todo search index catch-up failed | from={}", caughtUpTo, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (rebuilding) {
+            synchronized (pendingDuringRebuild) {
+                if (rebuilding) {
+                    pendingDuringRebuild.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Evaluates a title search plus the list filters entirely in memory and returns the ids
+     * of the requested page in (createdAt DESC, id DESC) order. Exactly one of offset or
+     * cursor is used.
+     */
+    public SearchHits search(String username,
+                             String term,
+                             String status,
+                             OffsetDateTime start,
+                             OffsetDateTime end,
+                             int offset,
+                             TodoCursor cursor,
+                             int size) {
+        UserTrigramIndex index = users.get(username);
+        if (index == null) {
+            return new SearchHits(List.of(), 0, false);
+        }
+
+        List<UserTrigramIndex.Entry> matches;
+        synchronized (index) {
+            matches = index.matching(term);
+        }
+
+        Long startNanos = start != null ? toNanos(start) : null;
+        Long endNanos = end != null ? toNanos(end) : null;
+        List<UserTrigramIndex.Entry> filtered = matches.stream()
+                .filter(e -> switch (status) {
+                    case "completed" -> e.completed();
+                    case "pending" -> !e.completed();
+                    default -> true;
+                })
+                .filter(e -> startNanos == null || e.createdAtNanos() >= startNanos)
+                .filter(e -> endNanos == null || e.createdAtNanos() <= endNanos)
+                .sorted(NEWEST_FIRST)
+                .toList();
+
+        int from = offset;
+        if (cursor != null) {
+            long cursorNanos = toNanos(cursor.createdAt());
+            from = 0;
+            while (from < filtered.size() && !isAfter(filtered.get(from), cursorNanos, cursor.id())) {
+                from++;
+            }
+        }
+
+        int to = Math.min(filtered.size(), from + size);
+        List<Long> ids = from >= to
+                ? List.of()
+                : filtered.subList(from, to).stream().map(UserTrigramIndex.Entry::id).toList();
+        return new SearchHits(ids, filtered.size(), to < filtered.size());
+    }
+
+    private static boolean isAfter(UserTrigramIndex.Entry entry, long cursorNanos, long cursorId) {
+        return entry.createdAtNanos() < cursorNanos
+                || (entry.createdAtNanos() == cursorNanos && entry.id() < cursorId);
+    }
+
+    private void apply(TodoChangedEvent event) {
+        if (event.type() == TodoChangedEvent.Type.DELETED) {
+            UserTrigramIndex index = users.get(event.username());
+            if (index != null) {
+                synchronized (index) {
+                    index.remove(event.id());
+                }
+            }
+        } else {
+            upsert(event.username(), event.id(), event.title(), event.completed(), event.createdAt(), event.updatedAt());
+        }
+    }
+
+    private void upsert(TodoRepository.TodoIndexRow row) {
+        upsert(row.getUsername(), row.getId(), row.getTitle(), row.isCompleted(), row.getCreatedAt(), row.getUpdatedAt());
+    }
+
+    private void upsert(String username, Long id, String title, boolean completed,
+                        OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+        UserTrigramIndex index = users.computeIfAbsent(username, u -> new UserTrigramIndex());
+        synchronized (index) {
+            index.upsert(id, title, completed, toNanos(createdAt), toNanos(updatedAt));
+        }
+    }
+
+    private static long toNanos(OffsetDateTime time) {
+        Instant instant = time.toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    public record SearchHits(List<Long> ids, long total, boolean hasNext) {
+    }
+}
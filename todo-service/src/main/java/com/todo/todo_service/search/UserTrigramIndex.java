@@ -0,0 +1,134 @@
+package com.todo.todo_service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram inverted index over one user's todo titles. Posting lists are append-only
+ * and may hold stale ids after an update or delete; every candidate is verified against
+ * the live entry, and the postings are compacted once stale ids outnumber live ones.
+ * An upsert older (by updatedAt) than the entry it would replace is ignored, so replayed or
+ * reordered changes never roll an entry back. Callers synchronise on the instance.
+ */
+final class UserTrigramIndex {
+
+    record Entry(long id, String title, boolean completed, long createdAtNanos, long updatedAtNanos) {
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private long livePostings;
+    private long storedPostings;
+
+    void upsert(long id, String title, boolean completed, long createdAtNanos, long updatedAtNanos) {
+        Entry previous = entries.get(id);
+        if (previous != null && previous.updatedAtNanos() > updatedAtNanos) {
+            return;
+        }
+        String normalized = normalize(title);
+        entries.put(id, new Entry(id, normalized, completed, createdAtNanos, updatedAtNanos));
+        if (previous != null) {
+            livePostings -= trigrams(previous.title()).size();
+            if (previous.title().equals(normalized)) {
+                livePostings += trigrams(normalized).size();
+                return;
+            }
+        }
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, k -> new PostingList()).add(id);
+            storedPostings++;
+            livePostings++;
+        }
+        compactIfNeeded();
+    }
+
+    void remove(long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            livePostings -= trigrams(previous.title()).size();
+            compactIfNeeded();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Entries whose title contains the term (case-insensitive), deduplicated
+    List<Entry> matching(String term) {
+        String needle = normalize(term);
+        if (needle.length() < 3) {
+            return entries.values().stream()
+                    .filter(e -> e.title().contains(needle))
+                    .toList();
+        }
+
+        // The rarest trigram of the term bounds the candidate set; verification does the rest
+        PostingList rarest = null;
+        for (long trigram : trigrams(needle)) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return List.of();
+            }
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+
+        List<Entry> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < rarest.size; i++) {
+            Entry entry = entries.get(rarest.ids[i]);
+            if (entry != null && entry.title().contains(needle) && seen.add(entry.id())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private void compactIfNeeded() {
+        if (storedPostings > 1024 && storedPostings > 2 * livePostings) {
+            postings.clear();
+            storedPostings = 0;
+            livePostings = 0;
+            for (Entry entry : entries.values()) {
+                for (long trigram : trigrams(entry.title())) {
+                    postings.computeIfAbsent(trigram, k -> new PostingList()).add(entry.id());
+                    storedPostings++;
+                    livePostings++;
+                }
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigrams of an already normalised string, each packed into a long
+    static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package com.todo.todo_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.todo.todo_service.cache.TodoPageCache;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.dto.TodoView;
+import com.todo.todo_service.exception.TodoNotFoundException;
+import com.todo.todo_service.exception.UnauthorizedTodoAccessException;
+import com.todo.todo_service.generated.model.BatchTodoOperation;
+import com.todo.todo_service.generated.model.BatchTodoResult;
+import com.todo.todo_service.generated.model.PaginatedTodoResponse;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.generated.model.TodoResponse;
+import com.todo.todo_service.generated.model.TodoSummary;
+import com.todo.todo_service.model.TodoRow;
+import com.todo.todo_service.repo.ReactiveTodoIdAllocator;
+import com.todo.todo_service.repo.ReactiveTodoRepository;
+import com.todo.todo_service.util.TodoCursor;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TodoService for the reactive profile: the same operations and the same error semantics over
+ * R2DBC, without ever blocking a Netty event-loop thread. Writes keep the todo_counters rows
+ * current (totals and list version) so MVC instances on the same database still report correct
+ * totals and ETags.
+ * <p>
+ * Lists always read the page and run the COUNT (concurrently, on two pooled connections);
+ * the page cache, the search index and the counter-based totals are MVC-only.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveTodoService {
+
+    private static final String CSV_HEADER = "id,title,description,completed,createdAt,updatedAt\n";
+    private static final int EXPORT_CHUNK_ROWS = 200;
+    // Request body buffers fetched ahead of the import parser
+    private static final int IMPORT_READ_AHEAD = 4;
+
+    private final ReactiveTodoRepository todoRepository;
+    private final ReactiveTodoIdAllocator idAllocator;
+    private final TransactionalOperator transaction;
+    private final ObjectWriter rowWriter;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final int importChunkSize;
+
+    public ReactiveTodoService(ReactiveTodoRepository todoRepository,
+                               ReactiveTodoIdAllocator idAllocator,
+                               ReactiveTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               Validator validator,
+                               @Value("${todo.import.chunk-size:500}") int importChunkSize) {
+        this.todoRepository = todoRepository;
+        this.idAllocator = idAllocator;
+        this.transaction = TransactionalOperator.create(transactionManager);
+        this.rowWriter = objectMapper.writer();
+        this.requestReader = objectMapper.readerFor(TodoRequest.class);
+        this.validator = validator;
+        this.importChunkSize = importChunkSize;
+    }
+
+    // Create new todo; the id is reserved before the transaction starts, as Hibernate does
+    public Mono<TodoResponse> createTodo(TodoRequest request, String username) {
+        boolean completed = request.getCompleted() != null && request.getCompleted();
+        return idAllocator.nextId()
+                .flatMap(id -> todoRepository.insert(TodoRow.create(
+                                id, username, request.getTitle(), request.getDescription(), completed))
+                        .flatMap(todo -> todoRepository.adjustCounters(username, 1, completed ? 1 : 0)
+                                .thenReturn(todo))
+                        .as(transaction::transactional))
+                .map(this::toResponse);
+    }
+
+    // Filtered + paginated retrieval with the same paging rules as TodoService
+    public Mono<PaginatedTodoResponse> getFilteredTodos(
+            String username,
+            String status,
+            String search,
+            LocalDate startDate,
+            LocalDate endDate,
+            Integer page,
+            Integer size,
+            String after,
+            Boolean exactTotal) {
+
+        String filter = status != null ? status : "all";
+        String term = search != null && !search.isBlank() ? search : null;
+        // Same UTC day boundaries as TodoService, expressed in the column's local time
+        LocalDateTime start = startDate != null
+                ? TodoRow.toLocal(startDate.atStartOfDay().atOffset(ZoneOffset.UTC))
+                : null;
+        LocalDateTime end = endDate != null
+                ? TodoRow.toLocal(endDate.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC))
+                : null;
+
+        // Keyset retrieval: no OFFSET scan and no COUNT, so totals are left unset
+        if (after != null && !after.isBlank()) {
+            TodoCursor cursor = TodoCursor.decode(after);
+            return todoRepository.findByFiltersAfter(username, filter, term, start, end,
+                            TodoRow.toLocal(cursor.createdAt()), cursor.id(), size + 1)
+                    .collectList()
+                    .map(rows -> toPaginatedResponse(rows, null, size));
+        }
+
+        // One extra row tells whether another page exists without a COUNT
+        Mono<PaginatedTodoResponse> content = todoRepository.findByFilters(
+                        username, filter, term, start, end, (long) (page - 1) * size, size + 1)
+                .collectList()
+                .map(rows -> toPaginatedResponse(rows, page, size));
+        if (Boolean.FALSE.equals(exactTotal)) {
+            return content;
+        }
+
+        return Mono.zip(content, todoRepository.countByFilters(username, filter, term, start, end))
+                .map(pageAndTotal -> {
+                    PaginatedTodoResponse response = pageAndTotal.getT1();
+                    long total = pageAndTotal.getT2();
+                    response.setTotalElements(total);
+                    response.setTotalPages((int) ((total + size - 1) / size));
+                    return response;
+                });
+    }
+
+    // TodoService.listEtag from the same todo_counters version, so MVC and reactive instances
+    // hand out and accept the same ETags
+    public Mono<String> listEtag(
+            String username,
+            String status,
+            String search,
+            LocalDate startDate,
+            LocalDate endDate,
+            Integer page,
+            Integer size,
+            String after,
+            Boolean exactTotal) {
+        TodoPageCache.PageKey key = TodoPageCache.PageKey.of(
+                username, status, search, startDate, endDate, page, size, after, exactTotal);
+        return todoRepository.findVersion(username)
+                .map(version -> "W/\"" + version + "-" + Long.toHexString(key.fingerprint()) + "\"");
+    }
+
+    // TodoService.getSummary's totals come from the counter store; here they are two COUNTs,
+    // run concurrently with the date range like the list's page and COUNT
+    public Mono<TodoSummary> getSummary(String username) {
+        return Mono.zip(
+                        todoRepository.countByFilters(username, "all", null, null, null),
+                        todoRepository.countByFilters(username, "completed", null, null, null),
+                        todoRepository.findDateRange(username))
+                .map(results -> {
+                    TodoSummary summary = new TodoSummary();
+                    summary.setTotal(results.getT1());
+                    summary.setCompleted(results.getT2());
+                    summary.setPending(results.getT1() - results.getT2());
+                    summary.setOldest(utcDate(results.getT3().oldest()));
+                    summary.setNewest(utcDate(results.getT3().newest()));
+                    return summary;
+                });
+    }
+
+    private static LocalDate utcDate(LocalDateTime value) {
+        return value != null ? TodoRow.toOffset(value).atZoneSameInstant(ZoneOffset.UTC).toLocalDate() : null;
+    }
+
+    // Export body as text chunks of EXPORT_CHUNK_ROWS rows in the TodoExportService formats.
+    // Rows are pulled from the driver as the socket drains, so memory stays flat
+    public Flux<String> exportTodos(String username, String status, String search,
+                                    LocalDate startDate, LocalDate endDate, TodoFileFormat format) {
+        LocalDateTime start = startDate != null
+                ? TodoRow.toLocal(startDate.atStartOfDay().atOffset(ZoneOffset.UTC))
+                : null;
+        LocalDateTime end = endDate != null
+                ? TodoRow.toLocal(endDate.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC))
+                : null;
+        String term = search != null && !search.isBlank() ? search : null;
+
+        Flux<String> lines = todoRepository.streamByFilters(username, status != null ? status : "all", term, start, end)
+                .map(row -> format == TodoFileFormat.CSV ? csvLine(row) : ndjsonLine(toView(row)));
+        // One write per chunk rather than per row
+        Flux<String> chunks = lines.buffer(EXPORT_CHUNK_ROWS).map(chunk -> String.join("", chunk));
+        return format == TodoFileFormat.CSV ? Flux.concat(Mono.just(CSV_HEADER), chunks) : chunks;
+    }
+
+    private String ndjsonLine(Object value) {
+        try {
+            return rowWriter.writeValueAsString(value) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise " + value, e);
+        }
+    }
+
+    private static String csvLine(TodoRow row) {
+        return row.id() + ","
+                + csvField(row.title()) + ","
+                + csvField(row.description()) + ","
+                + row.completed() + ","
+                + (row.createdAt() != null ? TodoRow.toOffset(row.createdAt()) : "") + ","
+                + (row.updatedAt() != null ? TodoRow.toOffset(row.updatedAt()) : "") + "\n";
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    // Bulk import with TodoImportService's parsing, chunk size and NDJSON report. The body is
+    // parsed from a blocking stream on boundedElastic, one record per downstream request, so it is
+    // only read as fast as chunks commit; each chunk is inserted in its own transaction.
+    public Flux<String> importTodos(String username, TodoFileFormat format, Flux<DataBuffer> body) {
+        return Flux.using(
+                () -> DataBufferUtils.subscriberInputStream(body, IMPORT_READ_AHEAD),
+                in -> importRecords(username, records(new TodoImportReader(
+                        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                        format, requestReader, validator))),
+                ReactiveTodoService::closeQuietly);
+    }
+
+    private static Flux<TodoImportReader.Record> records(TodoImportReader reader) {
+        return Flux.<TodoImportReader.Record>generate(sink -> {
+                    try {
+                        TodoImportReader.Record record = reader.next();
+                        if (record != null) {
+                            sink.next(record);
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (IOException e) {
+                        sink.error(new UncheckedIOException(e));
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<String> importRecords(String username, Flux<TodoImportReader.Record> records) {
+        ImportRun run = new ImportRun(username);
+        return records.concatMap(run::accept)
+                .concatWith(Mono.defer(run::flushChunk))
+                .concatWith(Mono.fromSupplier(() -> run.finish("done", null)))
+                .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof DataAccessException, e -> {
+                    // Same as TodoImportService: earlier chunks stay committed and the report says where it stopped
+                    log.warn("Import aborted | user={} | reason={}", username, e.getMessage());
+                    return Mono.fromSupplier(() -> run.finish("aborted", e.getMessage()));
+                });
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Closing import body failed | reason={}", e.getMessage());
+        }
+    }
+
+    // State of one import: the pending chunk and running totals, touched by one record at a time
+    private final class ImportRun {
+
+        private final String username;
+        private final List<TodoRequest> chunk = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun(String username) {
+            this.username = username;
+        }
+
+        Mono<String> accept(TodoImportReader.Record record) {
+            processed++;
+            if (!record.valid()) {
+                failed++;
+                return Mono.just(ndjsonLine(new TodoImportService.ImportLineError("error", record.line(), record.error())));
+            }
+            chunk.add(record.request());
+            return chunk.size() == importChunkSize ? flushChunk() : Mono.empty();
+        }
+
+        // Ids are reserved before the chunk's transaction, as in createTodo
+        Mono<String> flushChunk() {
+            if (chunk.isEmpty()) {
+                return Mono.empty();
+            }
+            long completed = chunk.stream().filter(request -> Boolean.TRUE.equals(request.getCompleted())).count();
+            return Flux.fromIterable(chunk)
+                    .concatMap(request -> idAllocator.nextId().map(id -> TodoRow.create(id, username,
+                            request.getTitle(), request.getDescription(), Boolean.TRUE.equals(request.getCompleted()))))
+                    .collectList()
+                    .flatMap(rows -> Flux.fromIterable(rows)
+                            .concatMap(todoRepository::insert)
+                            .then(todoRepository.adjustCounters(username, rows.size(), completed))
+                            .as(transaction::transactional))
+                    .then(Mono.fromSupplier(() -> {
+                        imported += chunk.size();
+                        chunk.clear();
+                        return ndjsonLine(new TodoImportService.ImportProgress("progress", processed, imported, failed, null));
+                    }));
+        }
+
+        String finish(String type, String error) {
+            // Records parsed but not yet committed when an import aborts are lost
+            failed += chunk.size();
+            chunk.clear();
+            return ndjsonLine(new TodoImportService.ImportProgress(type, processed, imported, failed, error));
+        }
+    }
+
+    // Update todo: one locked read of the current row, then one UPDATE by id; the flag read under
+    // the lock decides the counter change, and the response is built from the written row
+    public Mono<TodoResponse> updateTodo(Long id, TodoRequest request, String username) {
+        boolean completed = request.getCompleted() != null && request.getCompleted();
+        return todoRepository.findOwnedForUpdate(id, username)
+                .switchIfEmpty(Mono.defer(() -> rejectWrite(id, username)))
+                .flatMap(current -> todoRepository.update(
+                                current.withContent(request.getTitle(), request.getDescription(), completed))
+                        .flatMap(updated -> todoRepository.adjustCounters(
+                                        username, 0, current.completed() == completed ? 0 : (completed ? 1 : -1))
+                                .thenReturn(updated)))
+                .map(this::toResponse)
+                .as(transaction::transactional);
+    }
+
+    // Toggle completion: one UPDATE, then the row for the response; on zero rows that one read
+    // also tells missing and foreign apart from already in the requested state
+    public Mono<TodoResponse> toggleTodo(Long id, Boolean completed, String username) {
+        return todoRepository.setCompleted(id, username, completed, LocalDateTime.now())
+                .flatMap(rows -> rows == 1
+                        ? todoRepository.adjustCounters(username, 0, completed ? 1 : -1).then(reload(id))
+                        : reload(id).flatMap(todo -> todo.username().equals(username)
+                                ? Mono.just(todo)
+                                : Mono.error(new UnauthorizedTodoAccessException("You cannot modify this todo"))))
+                .map(this::toResponse)
+                .as(transaction::transactional);
+    }
+
+    // Delete todo: one locked read tells the counters which bucket shrinks, then one DELETE by id
+    public Mono<Void> deleteTodo(Long id, String username) {
+        return todoRepository.findOwnedForUpdate(id, username)
+                .switchIfEmpty(Mono.defer(() -> rejectWrite(id, username)))
+                .flatMap(todo -> todoRepository.delete(todo)
+                        .then(todoRepository.adjustCounters(username, -1, todo.completed() ? -1 : 0)))
+                .then()
+                .as(transaction::transactional);
+    }
+
+    // Batch of writes in one transaction with TodoService.applyBatch's per-item semantics:
+    // one SELECT for all referenced todos, the operations applied in memory in order, then
+    // one statement per row that actually changed
+    public Mono<List<BatchTodoResult>> applyBatch(List<BatchTodoOperation> operations, String username) {
+        List<Long> referencedIds = operations.stream()
+                .filter(op -> op.getOp() != BatchTodoOperation.OpEnum.CREATE && op.getId() != null)
+                .map(BatchTodoOperation::getId)
+                .distinct()
+                .toList();
+        long creates = operations.stream()
+                .filter(op -> op.getOp() == BatchTodoOperation.OpEnum.CREATE && op.getTodo() != null)
+                .count();
+
+        return Flux.range(0, (int) creates)
+                .concatMap(i -> idAllocator.nextId())
+                .collectList()
+                .flatMap(newIds -> todoRepository.findAllById(referencedIds)
+                        .collectMap(TodoRow::id)
+                        .flatMap(existing -> new BatchRun(username, existing, newIds).apply(operations))
+                        .as(transaction::transactional));
+    }
+
+    // In-memory state of one batch, written back in a single pass once every operation is applied
+    private final class BatchRun {
+
+        private final String username;
+        private final Map<Long, TodoRow> rows;
+        private final Iterator<Long> newIds;
+        private final Set<Long> created = new LinkedHashSet<>();
+        private final Set<Long> updated = new LinkedHashSet<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private long totalChange;
+        private long completedChange;
+
+        BatchRun(String username, Map<Long, TodoRow> rows, List<Long> newIds) {
+            this.username = username;
+            this.rows = rows;
+            this.newIds = newIds.iterator();
+        }
+
+        Mono<List<BatchTodoResult>> apply(List<BatchTodoOperation> operations) {
+            List<BatchTodoResult> results = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(apply(i, operations.get(i)));
+            }
+            return Flux.fromIterable(created).concatMap(id -> todoRepository.insert(rows.get(id)))
+                    .thenMany(Flux.fromIterable(updated).concatMap(id -> todoRepository.update(rows.get(id))))
+                    .then(todoRepository.deleteAllById(deleted))
+                    .then(todoRepository.adjustCounters(username, totalChange, completedChange))
+                    .then(Mono.fromSupplier(() -> {
+                        // A todo deleted later in the same batch reports success without a body
+                        for (BatchTodoResult result : results) {
+                            TodoRow todo = result.getId() != null ? rows.get(result.getId()) : null;
+                            if (result.getStatus() == 200 && todo != null) {
+                                result.todo(toResponse(todo));
+                            }
+                        }
+                        return results;
+                    }));
+        }
+
+        private BatchTodoResult apply(int index, BatchTodoOperation op) {
+            BatchTodoResult result = new BatchTodoResult()
+                    .index(index)
+                    .op(op.getOp().getValue())
+                    .id(op.getId());
+
+            if (op.getOp() == BatchTodoOperation.OpEnum.CREATE) {
+                if (op.getTodo() == null) {
+                    return result.status(400).error("todo is required for create");
+                }
+                TodoRow todo = TodoRow.create(
+                        newIds.next(),
+                        username,
+                        op.getTodo().getTitle(),
+                        op.getTodo().getDescription(),
+                        op.getTodo().getCompleted() != null && op.getTodo().getCompleted());
+                rows.put(todo.id(), todo);
+                created.add(todo.id());
+                totalChange++;
+                completedChange += todo.completed() ? 1 : 0;
+                return result.id(todo.id()).status(200);
+            }
+
+            TodoRow todo = op.getId() != null ? rows.get(op.getId()) : null;
+            if (todo == null) {
+                return result.status(404).error("Todo not found");
+            }
+            if (!todo.username().equals(username)) {
+                return result.status(403).error("You cannot modify this todo");
+            }
+
+            TodoRow changed;
+            switch (op.getOp()) {
+                case UPDATE -> {
+                    if (op.getTodo() == null) {
+                        return result.status(400).error("todo is required for update");
+                    }
+                    changed = todo.withContent(op.getTodo().getTitle(), op.getTodo().getDescription(),
+                            op.getTodo().getCompleted() != null && op.getTodo().getCompleted());
+                }
+                case TOGGLE -> {
+                    if (op.getCompleted() == null) {
+                        return result.status(400).error("completed is required for toggle");
+                    }
+                    changed = todo.withCompleted(op.getCompleted());
+                }
+                case DELETE -> {
+                    rows.remove(todo.id());
+                    if (!created.remove(todo.id())) {
+                        updated.remove(todo.id());
+                        deleted.add(todo.id());
+                    }
+                    totalChange--;
+                    completedChange -= todo.completed() ? 1 : 0;
+                    return result.status(200);
+                }
+                default -> throw new IllegalStateException("Unhandled batch op " + op.getOp());
+            }
+            rows.put(changed.id(), changed);
+            if (!created.contains(changed.id())) {
+                updated.add(changed.id());
+            }
+            completedChange += todo.completed() == changed.completed() ? 0 : (changed.completed() ? 1 : -1);
+            return result.status(200);
+        }
+    }
+
+    // Explains a write that matched no rows: missing (404) or someone else's (403)
+    private <T> Mono<T> rejectWrite(Long id, String username) {
+        return todoRepository.findOwnerById(id)
+                .<T>flatMap(owner -> Mono.error(new UnauthorizedTodoAccessException("You cannot modify this todo")))
+                .switchIfEmpty(Mono.error(() -> new TodoNotFoundException("Todo not found")));
+    }
+
+    private Mono<TodoRow> reload(Long id) {
+        return Mono.defer(() -> todoRepository.findById(id))
+                .switchIfEmpty(Mono.error(() -> new TodoNotFoundException("Todo not found")));
+    }
+
+    private PaginatedTodoResponse toPaginatedResponse(List<TodoRow> rows, Integer page, Integer size) {
+        boolean hasNext = rows.size() > size;
+        List<TodoRow> content = hasNext ? rows.subList(0, size) : rows;
+
+        PaginatedTodoResponse response = new PaginatedTodoResponse();
+        response.setContent(content.stream().map(this::toResponse).toList());
+        response.setPage(page);
+        response.setSize(size);
+        response.setLast(!hasNext);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            TodoRow last = content.get(content.size() - 1);
+            response.setNextCursor(TodoCursor.of(TodoRow.toOffset(last.createdAt()), last.id()).encode());
+        }
+        return response;
+    }
+
+    private TodoView toView(TodoRow row) {
+        return new TodoView(row.id(), row.username(), row.title(), row.description(), row.completed(),
+                TodoRow.toOffset(row.createdAt()), TodoRow.toOffset(row.updatedAt()));
+    }
+
+    // Mapping utility
+    private TodoResponse toResponse(TodoRow row) {
+        TodoResponse res = new TodoResponse();
+        res.setId(row.id());
+        res.setUsername(row.username());
+        res.setTitle(row.title());
+        res.setDescription(row.description());
+        res.setCompleted(row.completed());
+        res.setCreatedAt(TodoRow.toOffset(row.createdAt()));
+        res.setUpdatedAt(TodoRow.toOffset(row.updatedAt()));
+        return res;
+    }
+}
@@ -0,0 +1,87 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.model.TodoCounter;
+import com.todo.todo_service.repo.TodoCounterRepository;
+import com.todo.todo_service.repo.TodoRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@Profile("!reactive")
+public class TodoCounterService {
+
+    private final TodoCounterRepository counterRepository;
+    private final TodoRepository todoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate seedTransaction;
+
+    public TodoCounterService(TodoCounterRepository counterRepository,
+                              TodoRepository todoRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.todoRepository = todoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Current totals; the first read for a user seeds the row from two COUNTs
+    public TodoCounter get(String username) {
+        return counterRepository.findById(username).orElseGet(() -> seed(username));
+    }
+
+    // The user's list version; 0 until their first write since the counters were introduced
+    public long version(String username) {
+        return counterRepository.findVersion(username).orElse(0L);
+    }
+
+    // Must run inside the caller's write transaction, after its todo writes, so the totals and the
+    // version commit or roll back with the todo change. Called for every write, zero deltas included.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(String username, long totalDelta, long completedDelta) {
+        if (counterRepository.adjust(username, totalDelta, completedDelta) == 0) {
+            create(username, totalDelta, completedDelta);
+        }
+    }
+
+    // No row yet, so every earlier write to the user's todos has committed and this transaction's
+    // COUNTs (which include its own pending writes) are exact. If another writer or a seed inserts
+    // the row first, its COUNTs could not see this uncommitted write, so it is applied as a delta.
+    // The INSERT goes through JdbcTemplate: a duplicate key fails that statement alone, where a
+    // repository call would mark the whole write transaction rollback-only.
+    private void create(String username, long totalDelta, long completedDelta) {
+        long total = todoRepository.countByUsername(username);   // JPQL, so pending inserts are flushed first
+        long completed = todoRepository.countByUsernameAndCompleted(username, true);
+        try {
+            jdbcTemplate.update("INSERT INTO todo_counters (username, total, completed, version) VALUES (?, ?, ?, 1)",
+                    username, total, completed);
+        } catch (DuplicateKeyException e) {
+            counterRepository.adjust(username, totalDelta, completedDelta);
+        }
+    }
+
+    private TodoCounter seed(String username) {
+        try {
+            return seedTransaction.execute(status -> counterRepository.saveAndFlush(new TodoCounter(
+                    username,
+                    todoRepository.countByUsername(username),
+                    todoRepository.countByUsernameAndCompleted(username, true),
+                    0
+            )));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request seeded the row first. The caller's read-only transaction may have
+            // fixed its snapshot before that commit (or be on a lagging replica), so re-read in a new
+            // read-write transaction, which runs on the primary with a fresh snapshot.
+            return seedTransaction.execute(status -> counterRepository.findById(username)).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.todo.todo_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.dto.TodoView;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every todo matching the list filters straight from a JDBC cursor to the response,
+ * one row at a time, so memory stays flat no matter how many rows a user has.
+ * <p>
+ * todo.export.fetch-size defaults to Integer.MIN_VALUE, which makes MySQL Connector/J stream
+ * the result row by row off the socket. Unlike useCursorFetch it needs no server-side
+ * prepared statements, so nothing changes for the pool's other statements; the connection
+ * just runs nothing else until the stream is closed. Other drivers (H2 in the tests) reject
+ * negative fetch sizes and take a positive one.
+ */
+@Service
+@Profile("!reactive")
+public class TodoExportService {
+
+    private static final String CSV_HEADER = "id,title,description,completed,createdAt,updatedAt\n";
+
+    // Every matching row, newest first; projections, so nothing piles up in the persistence context
+    private static final String EXPORT_QUERY = """
+            SELECT new com.todo.todo_service.dto.TodoView(
+                t.id, t.username, t.title, t.description, t.completed, t.createdAt, t.updatedAt)
+            FROM Todo t
+            WHERE t.username = :username
+              AND (:status = 'all'
+                   OR (:status = 'completed' AND t.completed = TRUE)
+                   OR (:status = 'pending' AND t.completed = FALSE))
+              AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')))
+              AND (:startDate IS NULL OR t.createdAt >= :startDate)
+              AND (:endDate IS NULL OR t.createdAt <= :endDate)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """;
+
+    private final EntityManager entityManager;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+
+    public TodoExportService(EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             @Value("${todo.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+        // Let the generator buffer; a flush per row would turn into one socket write per todo
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String username,
+                       String status,
+                       String search,
+                       LocalDate startDate,
+                       LocalDate endDate,
+                       TodoFileFormat format,
+                       OutputStream out) throws IOException {
+
+        // Same date handling as the list endpoint
+        OffsetDateTime start = startDate != null
+                ? startDate.atStartOfDay().atOffset(ZoneOffset.UTC)
+                : null;
+        OffsetDateTime end = endDate != null
+                ? endDate.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC)
+                : null;
+        String term = search != null && !search.isBlank() ? search : null;
+
+        // Must be consumed and closed inside this (read-only) transaction
+        try (Stream<TodoView> rows = entityManager.createQuery(EXPORT_QUERY, TodoView.class)
+                .setParameter("username", username)
+                .setParameter("status", status != null ? status : "all")
+                .setParameter("search", term)
+                .setParameter("startDate", start)
+                .setParameter("endDate", end)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            if (format == TodoFileFormat.CSV) {
+                writeCsv(rows.iterator(), out);
+            } else {
+                writeNdjson(rows.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<TodoView> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);   // rows are separated by the newline below
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<TodoView> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            TodoView row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writeCsvField(writer, row.title());
+            writer.write(',');
+            writeCsvField(writer, row.description());
+            writer.write(',');
+            writer.write(String.valueOf(row.completed()));
+            writer.write(',');
+            writer.write(row.createdAt() != null ? row.createdAt().toString() : "");
+            writer.write(',');
+            writer.write(row.updatedAt() != null ? row.updatedAt().toString() : "");
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,147 @@
+package com.todo.todo_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.util.CsvRecordReader;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Pulls one import record at a time from an NDJSON or CSV body and validates it against the
+ * TodoRequest constraints. Shared by TodoImportService and ReactiveTodoService, so both stacks
+ * accept and reject the same lines with the same messages.
+ */
+class TodoImportReader {
+
+    // A valid record is well under 1 KB (title <= 100, description <= 300 chars)
+    static final int MAX_RECORD_CHARS = 16_384;
+
+    private final Reader reader;
+    private final TodoFileFormat format;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private int lineNumber;
+    private boolean more = true;
+    private CsvRecordReader csv;
+    private int titleColumn;
+    private int descriptionColumn;
+    private int completedColumn;
+
+    TodoImportReader(Reader reader, TodoFileFormat format, ObjectReader requestReader, Validator validator) {
+        this.reader = reader;
+        this.format = format;
+        this.requestReader = requestReader;
+        this.validator = validator;
+    }
+
+    // Next record, or null at end of input. Input that cannot be resynchronised (unterminated
+    // quote, oversized CSV record, no title column) throws IllegalArgumentException.
+    Record next() throws IOException {
+        return format == TodoFileFormat.CSV ? nextCsv() : nextNdjson();
+    }
+
+    private Record nextNdjson() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (more) {
+            line.setLength(0);
+            boolean tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (line.length() < MAX_RECORD_CHARS) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;   // keep reading to resynchronise on the next newline
+                }
+            }
+            more = c != -1;
+            lineNumber++;
+
+            if (tooLong) {
+                return Record.rejected(lineNumber, "Line exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            String json = line.toString().strip();
+            if (json.isEmpty()) {
+                continue;
+            }
+            try {
+                return validated(lineNumber, requestReader.readValue(json));
+            } catch (JsonProcessingException e) {
+                return Record.rejected(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    private Record nextCsv() throws IOException {
+        if (csv == null && !readHeader()) {
+            return null;
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            String completed = field(record, completedColumn);
+            if (completed != null && !completed.isBlank()
+                    && !completed.equalsIgnoreCase("true") && !completed.equalsIgnoreCase("false")) {
+                return Record.rejected(csv.recordLine(), "completed: must be true or false");
+            }
+            TodoRequest request = new TodoRequest();
+            request.setTitle(field(record, titleColumn));
+            request.setDescription(field(record, descriptionColumn));
+            request.setCompleted(Boolean.parseBoolean(completed));
+            return validated(csv.recordLine(), request);
+        }
+        return null;
+    }
+
+    private boolean readHeader() throws IOException {
+        csv = new CsvRecordReader(reader, MAX_RECORD_CHARS);
+        List<String> header = csv.next();
+        if (header == null) {
+            return false;
+        }
+        List<String> columns = header.stream().map(h -> h.strip().toLowerCase(Locale.ROOT)).toList();
+        titleColumn = columns.indexOf("title");
+        descriptionColumn = columns.indexOf("description");
+        completedColumn = columns.indexOf("completed");
+        if (titleColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+        return true;
+    }
+
+    private Record validated(int line, TodoRequest request) {
+        if (request == null) {
+            return Record.rejected(line, "Expected a JSON object");
+        }
+        String error = validator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return error.isEmpty() ? new Record(line, request, null) : Record.rejected(line, error);
+    }
+
+    private static String field(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column) : null;
+    }
+
+    // One parsed line: a valid request, or the reason it was rejected
+    record Record(int line, TodoRequest request, String error) {
+
+        static Record rejected(int line, String error) {
+            return new Record(line, null, error);
+        }
+
+        boolean valid() {
+            return error == null;
+        }
+    }
+}
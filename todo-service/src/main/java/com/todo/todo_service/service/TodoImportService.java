@@ -0,0 +1,171 @@
+package com.todo.todo_service.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.event.TodoChangedEvent;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.repo.TodoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk import of todos from an NDJSON or CSV body. Records are parsed and validated one at
+ * a time by TodoImportReader, and inserted in chunks of
+ * todo.import.chunk-size rows, each chunk in its own transaction (JDBC-batched by
+ * Hibernate). Progress and per-line errors are written to the response as NDJSON.
+ * <p>
+ * The body is only read as fast as chunks commit. Unread bytes stay in the socket buffers,
+ * so a fast client is throttled by TCP flow control instead of being buffered in memory.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class TodoImportService {
+
+    private final TodoRepository todoRepository;
+    private final TodoCounterService counterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ObjectWriter reportWriter;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public TodoImportService(TodoRepository todoRepository,
+                             TodoCounterService counterService,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${todo.import.chunk-size:500}") int chunkSize) {
+        this.todoRepository = todoRepository;
+        this.counterService = counterService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(TodoRequest.class);
+        this.reportWriter = objectMapper.writer();
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportProgress importTodos(String username, TodoFileFormat format, InputStream in, OutputStream out)
+            throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        TodoImportReader records = new TodoImportReader(reader, format, requestReader, validator);
+        ImportRun run = new ImportRun(username, out);
+        try {
+            TodoImportReader.Record record;
+            while ((record = records.next()) != null) {
+                run.accept(record);
+            }
+            run.flushChunk();
+        } catch (IllegalArgumentException | DataAccessException e) {
+            // Unrecoverable input (unterminated quote, oversized CSV record) or a failed chunk:
+            // earlier chunks stay committed and the report says where it stopped
+            log.warn("Import aborted | user={} | reason={}", username, e.getMessage());
+            return run.finish("aborted", e.getMessage());
+        }
+        return run.finish("done", null);
+    }
+
+    // State of one import: the pending chunk, running totals and the report stream
+    private final class ImportRun {
+
+        private final String username;
+        private final OutputStream out;
+        private final List<Todo> chunk = new ArrayList<>(chunkSize);
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun(String username, OutputStream out) {
+            this.username = username;
+            this.out = out;
+        }
+
+        void accept(TodoImportReader.Record record) throws IOException {
+            processed++;
+            if (!record.valid()) {
+                failed++;
+                write(new ImportLineError("error", record.line(), record.error()));
+                return;
+            }
+            TodoRequest request = record.request();
+            chunk.add(new Todo(
+                    username,
+                    request.getTitle(),
+                    request.getDescription(),
+                    request.getCompleted() != null && request.getCompleted()
+            ));
+            if (chunk.size() == chunkSize) {
+                flushChunk();
+            }
+        }
+
+        void flushChunk() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            long completed = chunk.stream().filter(Todo::isCompleted).count();
+            chunkTransaction.executeWithoutResult(status -> {
+                todoRepository.saveAll(chunk);
+                todoRepository.flush();
+                counterService.adjust(username, chunk.size(), completed);
+                chunk.forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.upserted(todo)));
+            });
+            // With open-in-view the persistence context outlives the chunk's transaction
+            entityManager.clear();
+            imported += chunk.size();
+            chunk.clear();
+            write(new ImportProgress("progress", processed, imported, failed, null));
+            out.flush();
+        }
+
+        ImportProgress finish(String type, String error) throws IOException {
+            // Records parsed but not yet committed when an import aborts are lost
+            failed += chunk.size();
+            chunk.clear();
+            ImportProgress summary = new ImportProgress(type, processed, imported, failed, error);
+            write(summary);
+            out.flush();
+            return summary;
+        }
+
+        private void write(Object report) throws IOException {
+            out.write(reportWriter.writeValueAsBytes(report));
+            out.write('\n');
+        }
+    }
+
+    public record ImportLineError(String type, int line, String error) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ImportProgress(String type, long processed, long imported, long failed, String error) {
+    }
+}
@@ -1,33 +1,72 @@
 package com.todo.todo_service.service;
 
+import com.todo.todo_service.cache.TodoPageCache;
+import com.todo.todo_service.dto.TodoView;
+import com.todo.todo_service.event.TodoChangedEvent;
+import com.todo.todo_service.generated.model.BatchTodoOperation;
+import com.todo.todo_service.generated.model.BatchTodoResult;
 import com.todo.todo_service.generated.model.PaginatedTodoResponse;
 import com.todo.todo_service.generated.model.TodoRequest;
 import com.todo.todo_service.generated.model.TodoResponse;
+import com.todo.todo_service.generated.model.TodoSummary;
+import com.todo.todo_service.exception.TodoNotFoundException;
+import com.todo.todo_service.exception.UnauthorizedTodoAccessException;
 import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.model.TodoCounter;
 import com.todo.todo_service.repo.TodoRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.todo.todo_service.search.TodoSearchIndex;
+import com.todo.todo_service.util.TodoCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 public class TodoService {
 
     private final TodoRepository todoRepository;
+    private final TodoCounterService counterService;
+    private final TodoSearchIndex searchIndex;
+    private final TodoPageCache pageCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public TodoService(TodoRepository todoRepository) {
+    public TodoService(TodoRepository todoRepository,
+                       TodoCounterService counterService,
+                       TodoSearchIndex searchIndex,
+                       TodoPageCache pageCache,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
         this.todoRepository = todoRepository;
+        this.counterService = counterService;
+        this.searchIndex = searchIndex;
+        this.pageCache = pageCache;
+        this.eventPublisher = eventPublisher;
+        // List reads run read-only (no flush, no dirty checking); a cache hit costs the version lookup
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // Create new todo
+    @Transactional
     public TodoResponse createTodo(TodoRequest request, String username) {
         Todo todo = new Todo(
                 username,
@@ -36,10 +75,13 @@ public class TodoService {
                 request.getCompleted() != null ? request.getCompleted() : false
         );
         todoRepository.save(todo);
+        counterService.adjust(username, 1, todo.isCompleted() ? 1 : 0);
+        eventPublisher.publishEvent(TodoChangedEvent.upserted(todo));
         return toResponse(todo);
     }
 
-    // Filtered + Paginated retrieval
+    // Filtered + Paginated retrieval, served from the per-user page cache while the user's list
+    // version is unchanged. The version and a missed page are read in one transaction.
     public PaginatedTodoResponse getFilteredTodos(
             String username,
             String status,
@@ -47,7 +89,69 @@ public class TodoService {
             LocalDate startDate,
             LocalDate endDate,
             Integer page,
-            Integer size) {
+            Integer size,
+            String after,
+            Boolean exactTotal) {
+        // Index-resolved searches are already cheap, and the index can briefly lag writes made
+        // through other instances; caching would keep such a result until the user's next write
+        if (search != null && !search.isBlank() && searchIndex.isReady()) {
+            return readOnlyTransaction.execute(tx -> loadFilteredTodos(
+                    username, status, search, startDate, endDate, page, size, after, exactTotal));
+        }
+        TodoPageCache.PageKey key = TodoPageCache.PageKey.of(
+                username, status, search, startDate, endDate, page, size, after, exactTotal);
+        return readOnlyTransaction.execute(tx -> pageCache.get(key, counterService.version(username),
+                () -> loadFilteredTodos(username, status, search, startDate, endDate, page, size, after, exactTotal)));
+    }
+
+    // Status tab totals from the counter store and the date filter's bounds from the index
+    public TodoSummary getSummary(String username) {
+        return readOnlyTransaction.execute(tx -> {
+            TodoCounter counter = counterService.get(username);
+            TodoRepository.TodoDateRange range = todoRepository.findDateRange(username);
+            TodoSummary summary = new TodoSummary();
+            summary.setTotal(counter.getTotal());
+            summary.setCompleted(counter.getCompleted());
+            summary.setPending(counter.getPending());
+            summary.setOldest(utcDate(range.getOldest()));
+            summary.setNewest(utcDate(range.getNewest()));
+            return summary;
+        });
+    }
+
+    private static LocalDate utcDate(OffsetDateTime value) {
+        return value != null ? value.atZoneSameInstant(ZoneOffset.UTC).toLocalDate() : null;
+    }
+
+    // Weak ETag for a list request from the user's list version (stored with the counters, so
+    // every instance agrees on it) and the filters; a matching If-None-Match costs one primary-key
+    // read. Take it before loading the page: a write that lands in between only makes it stale early.
+    public String listEtag(
+            String username,
+            String status,
+            String search,
+            LocalDate startDate,
+            LocalDate endDate,
+            Integer page,
+            Integer size,
+            String after,
+            Boolean exactTotal) {
+        TodoPageCache.PageKey key = TodoPageCache.PageKey.of(
+                username, status, search, startDate, endDate, page, size, after, exactTotal);
+        long version = readOnlyTransaction.execute(tx -> counterService.version(username));
+        return "W/\"" + version + "-" + Long.toHexString(key.fingerprint()) + "\"";
+    }
+
+    private PaginatedTodoResponse loadFilteredTodos(
+            String username,
+            String status,
+            String search,
+            LocalDate startDate,
+            LocalDate endDate,
+            Integer page,
+            Integer size,
+            String after,
+            Boolean exactTotal) {
 
         // Convert LocalDate → OffsetDateTime (UTC)
         OffsetDateTime start = startDate != null
@@ -56,72 +160,320 @@ public class TodoService {
         OffsetDateTime end = endDate != null
                 ? endDate.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC)
                 : null;
+        String term = search != null && !search.isBlank() ? search : null;
+        TodoCursor cursor = after != null && !after.isBlank() ? TodoCursor.decode(after) : null;
+
+        // Title searches resolve ids through the in-process index and load only the page's rows
+        if (term != null && searchIndex.isReady()) {
+            return searchViaIndex(username, status, term, start, end, page, size, cursor, exactTotal);
+        }
+
+        if (cursor != null) {
+            return getTodosAfterCursor(username, status, term, start, end, size, cursor);
+        }
 
         // Build Pageable (0-based page index)
         Pageable pageable = PageRequest.of(
                 page - 1,
                 size,
-                Sort.by("createdAt").descending()
+                Sort.by("createdAt").descending().and(Sort.by("id").descending())
         );
 
+        // Status-only filters: totals come from the counter store, never from a COUNT
+        if (term == null && start == null && end == null) {
+            Slice<TodoView> slice = todoRepository.findSliceByFilters(username, status, null, null, null, pageable);
+            long total = countFor(counterService.get(username), status);
+            PaginatedTodoResponse response = toPaginatedResponse(slice, page, size);
+            response.setTotalElements(total);
+            response.setTotalPages((int) ((total + size - 1) / size));
+            return response;
+        }
+
+        // Opt-in for searches: skip the COUNT and only report whether another page exists
+        if (Boolean.FALSE.equals(exactTotal)) {
+            Slice<TodoView> slice = todoRepository.findSliceByFilters(username, status, term, start, end, pageable);
+            return toPaginatedResponse(slice, page, size);
+        }
+
         // Query with filters + pagination
-        Page<Todo> todoPage = todoRepository.findByFilters(
-                username, status, search, start, end, pageable
+        Page<TodoView> todoPage = todoRepository.findViewsByFilters(
+                username, status, term, start, end, pageable
+        );
+
+        PaginatedTodoResponse response = toPaginatedResponse(todoPage, page, size);
+        response.setTotalElements(todoPage.getTotalElements());
+        response.setTotalPages(todoPage.getTotalPages());
+        return response;
+    }
+
+    // Keyset retrieval: no OFFSET scan and no COUNT, so totals are left unset
+    private PaginatedTodoResponse getTodosAfterCursor(
+            String username,
+            String status,
+            String search,
+            OffsetDateTime start,
+            OffsetDateTime end,
+            Integer size,
+            TodoCursor cursor) {
+
+        Slice<TodoView> slice = todoRepository.findByFiltersAfter(
+                username, status, search, start, end,
+                cursor.createdAt(), cursor.id(), PageRequest.of(0, size)
         );
 
+        return toPaginatedResponse(slice, null, size);
+    }
+
+    private PaginatedTodoResponse searchViaIndex(
+            String username,
+            String status,
+            String term,
+            OffsetDateTime start,
+            OffsetDateTime end,
+            Integer page,
+            Integer size,
+            TodoCursor cursor,
+            Boolean exactTotal) {
+
+        int offset = cursor != null ? 0 : (page - 1) * size;
+        TodoSearchIndex.SearchHits hits = searchIndex.search(username, term, status, start, end, offset, cursor, size);
+
+        Map<Long, TodoView> rows = todoRepository.findViewsByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(TodoView::id, Function.identity()));
+        List<TodoView> ordered = hits.ids().stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        PaginatedTodoResponse response = new PaginatedTodoResponse();
+        response.setContent(ordered.stream().map(this::toResponse).collect(Collectors.toList()));
+        response.setSize(size);
+        response.setLast(!hits.hasNext());
+        response.setHasNext(hits.hasNext());
+        response.setNextCursor(hits.hasNext() && !ordered.isEmpty() ? nextCursor(ordered) : null);
+        if (cursor == null) {
+            response.setPage(page);
+        }
+        if (cursor == null && !Boolean.FALSE.equals(exactTotal)) {
+            response.setTotalElements(hits.total());
+            response.setTotalPages((int) ((hits.total() + size - 1) / size));
+        }
+        return response;
+    }
+
+    private PaginatedTodoResponse toPaginatedResponse(Slice<TodoView> slice, Integer page, Integer size) {
         // Map to response
-        List<TodoResponse> content = todoPage.stream()
+        List<TodoResponse> content = slice.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
 
-        // Build paginated response
         PaginatedTodoResponse response = new PaginatedTodoResponse();
         response.setContent(content);
         response.setPage(page);
         response.setSize(size);
-        response.setTotalElements(todoPage.getTotalElements());
-        response.setTotalPages(todoPage.getTotalPages());
-        response.setLast(todoPage.isLast());
-
+        response.setLast(!slice.hasNext());
+        response.setHasNext(slice.hasNext());
+        response.setNextCursor(slice.hasNext() ? nextCursor(slice.getContent()) : null);
         return response;
     }
 
-    // Update todo
-    public TodoResponse updateTodo(Long id, TodoRequest request, String username) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Todo not found"));
+    private long countFor(TodoCounter counter, String status) {
+        return switch (status) {
+            case "completed" -> counter.getCompleted();
+            case "pending" -> counter.getPending();
+            default -> counter.getTotal();
+        };
+    }
 
-        if (!todo.getUsername().equals(username)) {
-            throw new SecurityException("You cannot modify this todo");
-        }
+    private String nextCursor(List<TodoView> content) {
+        TodoView last = content.get(content.size() - 1);
+        return TodoCursor.of(last.createdAt(), last.id()).encode();
+    }
 
+    // Update todo: one locked read of the current row, then one UPDATE (at flush); the flag read
+    // under the lock decides the counter change. Not a single conditional UPDATE like toggle: the
+    // counters need the old completed flag, which an UPDATE's row count cannot return, and the
+    // response needs the row anyway, so the statement count is the same.
+    @Transactional
+    public TodoResponse updateTodo(Long id, TodoRequest request, String username) {
+        Todo todo = todoRepository.findOwnedForUpdate(id, username)
+                .orElseThrow(() -> rejectWrite(id, username));
+        boolean wasCompleted = todo.isCompleted();
         todo.setTitle(request.getTitle());
         todo.setDescription(request.getDescription());
         todo.setCompleted(request.getCompleted() != null && request.getCompleted());
-        todoRepository.save(todo);
+        todoRepository.flush();   // @PreUpdate stamps updatedAt before the response is built
+
+        counterService.adjust(username, 0, completedDelta(wasCompleted, todo.isCompleted()));
+        eventPublisher.publishEvent(TodoChangedEvent.upserted(todo));
         return toResponse(todo);
     }
 
-    // Toggle completion
+    // Toggle completion: one UPDATE, then the row for the response. Zero rows means missing,
+    // someone else's, or already in the requested state (a double click or a retry); the one
+    // read tells them apart, and an unchanged row is not published.
+    @Transactional
     public TodoResponse toggleTodo(Long id, Boolean completed, String username) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Todo not found"));
-
+        if (todoRepository.setCompleted(id, username, completed, OffsetDateTime.now()) == 1) {
+            counterService.adjust(username, 0, completed ? 1 : -1);
+            Todo todo = findOrThrow(id);
+            eventPublisher.publishEvent(TodoChangedEvent.upserted(todo));
+            return toResponse(todo);
+        }
+        Todo todo = findOrThrow(id);
         if (!todo.getUsername().equals(username)) {
-            throw new SecurityException("You cannot modify this todo");
+            throw new UnauthorizedTodoAccessException("You cannot modify this todo");
         }
-
-        todo.setCompleted(completed);
-        todoRepository.save(todo);
         return toResponse(todo);
     }
 
-    // Delete todo
-    public void deleteTodo(Long id) {
-        if (!todoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Todo not found");
+    // Delete todo: one locked read tells the counters which bucket shrinks, then one DELETE by id.
+    // As with update, a conditional DELETE alone could not say which bucket that is.
+    @Transactional
+    public void deleteTodo(Long id, String username) {
+        Todo todo = todoRepository.findOwnedForUpdate(id, username)
+                .orElseThrow(() -> rejectWrite(id, username));
+        todoRepository.delete(todo);
+        counterService.adjust(username, -1, todo.isCompleted() ? -1 : 0);
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(username, id));
+    }
+
+    // Explains a write that matched no rows: missing (404) or someone else's (403)
+    private RuntimeException rejectWrite(Long id, String username) {
+        return todoRepository.findOwnerById(id)
+                .<RuntimeException>map(owner -> new UnauthorizedTodoAccessException("You cannot modify this todo"))
+                .orElseGet(() -> new TodoNotFoundException("Todo not found"));
+    }
+
+    private Todo findOrThrow(Long id) {
+        return todoRepository.findById(id)
+                .orElseThrow(() -> new TodoNotFoundException("Todo not found"));
+    }
+
+    // Batch of writes in one transaction: one SELECT for all referenced todos, then a single
+    // flush so Hibernate sends the inserts/updates/deletes as JDBC batches
+    @Transactional
+    public List<BatchTodoResult> applyBatch(List<BatchTodoOperation> operations, String username) {
+        List<Long> referencedIds = operations.stream()
+                .filter(op -> op.getOp() != BatchTodoOperation.OpEnum.CREATE && op.getId() != null)
+                .map(BatchTodoOperation::getId)
+                .distinct()
+                .toList();
+        Map<Long, Todo> existing = todoRepository.findAllById(referencedIds).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<BatchTodoResult> results = new ArrayList<>(operations.size());
+        List<Todo> touched = new ArrayList<>();
+        List<TodoChangedEvent> deletions = new ArrayList<>();
+        long totalChange = 0;
+        long completedChange = 0;
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTodoOperation op = operations.get(i);
+            BatchTodoResult result = new BatchTodoResult()
+                    .index(i)
+                    .op(op.getOp().getValue())
+                    .id(op.getId());
+            results.add(result);
+
+            if (op.getOp() == BatchTodoOperation.OpEnum.CREATE) {
+                if (op.getTodo() == null) {
+                    result.status(400).error("todo is required for create");
+                    continue;
+                }
+                Todo todo = new Todo(
+                        username,
+                        op.getTodo().getTitle(),
+                        op.getTodo().getDescription(),
+                        op.getTodo().getCompleted() != null && op.getTodo().getCompleted()
+                );
+                todoRepository.save(todo);
+                existing.put(todo.getId(), todo);
+                totalChange++;
+                completedChange += todo.isCompleted() ? 1 : 0;
+                touched.add(todo);
+                result.id(todo.getId()).status(200);
+                continue;
+            }
+
+            Todo todo = op.getId() != null ? existing.get(op.getId()) : null;
+            if (todo == null) {
+                result.status(404).error("Todo not found");
+                continue;
+            }
+            if (!todo.getUsername().equals(username)) {
+                result.status(403).error("You cannot modify this todo");
+                continue;
+            }
+
+            boolean wasCompleted = todo.isCompleted();
+            switch (op.getOp()) {
+                case UPDATE -> {
+                    if (op.getTodo() == null) {
+                        result.status(400).error("todo is required for update");
+                        continue;
+                    }
+                    todo.setTitle(op.getTodo().getTitle());
+                    todo.setDescription(op.getTodo().getDescription());
+                    todo.setCompleted(op.getTodo().getCompleted() != null && op.getTodo().getCompleted());
+                }
+                case TOGGLE -> {
+                    if (op.getCompleted() == null) {
+                        result.status(400).error("completed is required for toggle");
+                        continue;
+                    }
+                    todo.setCompleted(op.getCompleted());
+                }
+                case DELETE -> {
+                    todoRepository.delete(todo);
+                    existing.remove(todo.getId());
+                    totalChange--;
+                    completedChange -= wasCompleted ? 1 : 0;
+                    deletions.add(TodoChangedEvent.deleted(username, todo.getId()));
+                    result.status(200);
+                    continue;
+                }
+                default -> throw new IllegalStateException("Unhandled batch op " + op.getOp());
+            }
+            completedChange += completedDelta(wasCompleted, todo.isCompleted());
+            touched.add(todo);
+            result.status(200);
+        }
+
+        todoRepository.flush();
+        counterService.adjust(username, totalChange, completedChange);
+
+        // Responses are built after the flush so generated timestamps are populated; a todo
+        // deleted later in the same batch reports success without a body
+        for (BatchTodoResult result : results) {
+            Todo todo = result.getId() != null ? existing.get(result.getId()) : null;
+            if (result.getStatus() == 200 && todo != null) {
+                result.todo(toResponse(todo));
+            }
         }
-        todoRepository.deleteById(id);
+        touched.stream()
+                .distinct()
+                .filter(todo -> existing.containsKey(todo.getId()))
+                .forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.upserted(todo)));
+        deletions.forEach(eventPublisher::publishEvent);
+        return results;
+    }
+
+    private static long completedDelta(boolean before, boolean after) {
+        return before == after ? 0 : (after ? 1 : -1);
+    }
+
+    // Mapping utility for projections (list reads)
+    private TodoResponse toResponse(TodoView view) {
+        TodoResponse res = new TodoResponse();
+        res.setId(view.id());
+        res.setUsername(view.username());
+        res.setTitle(view.title());
+        res.setDescription(view.description());
+        res.setCompleted(view.completed());
+        res.setCreatedAt(view.createdAt());
+        res.setUpdatedAt(view.updatedAt());
+        return res;
     }
 
     // Mapping utility
@@ -136,4 +488,4 @@ public class TodoService {
         res.setUpdatedAt(todo.getUpdatedAt());
         return res;
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,108 @@
 package com.todo.todo_service.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.todo.todo_service.exception.AuthServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Asks auth-service whether users exist, through a local cache: answers that a user exists are
+ * kept for the positive TTL, answers that they do not for a much shorter negative TTL (a user
+ * may register at any moment).
+ * <p>
+ * Concurrent checks for the same username share one in-flight request. The caller that misses
+ * makes the call on its own thread; the others wait for its result. Failed calls are not cached
+ * and surface as AuthServiceUnavailableException rather than as "user does not exist".
+ */
+@Slf4j
 @Service
 public class UserValidator {
 
+    // maxItems of POST /auth/exists
+    private static final int BATCH_LIMIT = 500;
+
     private final RestTemplate restTemplate;
+    private final AsyncCache<String, Boolean> cache;
 
-    public UserValidator(RestTemplate restTemplate) {
+    public UserValidator(RestTemplate restTemplate,
+                         @Value("${todo.users.cache.positive-ttl:10m}") Duration positiveTtl,
+                         @Value("${todo.users.cache.negative-ttl:5s}") Duration negativeTtl,
+                         @Value("${todo.users.cache.maximum-size:100000}") long maximumSize) {
         this.restTemplate = restTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String username, Boolean exists) -> exists ? positiveTtl : negativeTtl))
+                .buildAsync();
     }
 
     public boolean userExists(String username) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = cache.asMap().putIfAbsent(username, created);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            created.complete(fetch(username));
+        } catch (RuntimeException e) {
+            // Caffeine drops entries whose future fails, so the next check asks again
+            created.completeExceptionally(e);
+        }
+        return join(created);
+    }
+
+    /**
+     * The subset of usernames that exist. Cached and in-flight answers are reused; everything
+     * else is asked in a single POST /auth/exists.
+     */
+    public Set<String> existingUsers(Collection<String> usernames) {
+        Map<String, CompletableFuture<Boolean>> answers = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Boolean>> owned = new LinkedHashMap<>();
+        for (String username : new HashSet<>(usernames)) {
+            CompletableFuture<Boolean> created = new CompletableFuture<>();
+            CompletableFuture<Boolean> inFlight = cache.asMap().putIfAbsent(username, created);
+            answers.put(username, inFlight != null ? inFlight : created);
+            if (inFlight == null) {
+                owned.put(username, created);
+            }
+        }
+
+        List<String> misses = List.copyOf(owned.keySet());
+        for (int from = 0; from < misses.size(); from += BATCH_LIMIT) {
+            List<String> batch = misses.subList(from, Math.min(from + BATCH_LIMIT, misses.size()));
+            try {
+                Set<String> existing = fetchAll(batch);
+                batch.forEach(username -> owned.get(username).complete(existing.contains(username)));
+            } catch (RuntimeException e) {
+                batch.forEach(username -> owned.get(username).completeExceptionally(e));
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        answers.forEach((username, future) -> {
+            if (join(future)) {
+                existing.add(username);
+            }
+        });
+        return existing;
+    }
+
+    private boolean fetch(String username) {
         try {
             Map<String, Object> response = restTemplate.getForObject(
                     "http://AUTH-SERVICE/auth/exists/{username}",
@@ -23,9 +111,39 @@ public class UserValidator {
             );
 
             return response != null && Boolean.TRUE.equals(response.get("exists"));
-        } catch (Exception e) {
-            System.err.println("❌ [UserValidator] Error checking user existence: " + e.getMessage());
-            return false;
+        } catch (RestClientException e) {
+            log.warn("User existence check failed | username={} | error={}", username, e.getMessage());
+            throw new AuthServiceUnavailableException("Could not verify user: auth-service unavailable", e);
+        }
+    }
+
+    private Set<String> fetchAll(Collection<String> usernames) {
+        try {
+            Map<String, Object> response = restTemplate.postForObject(
+                    "http://AUTH-SERVICE/auth/exists",
+                    Map.of("usernames", usernames),
+                    Map.class
+            );
+
+            Set<String> existing = new HashSet<>();
+            if (response != null && response.get("existing") instanceof Collection<?> names) {
+                names.forEach(name -> existing.add(String.valueOf(name)));
+            }
+            return existing;
+        } catch (RestClientException e) {
+            log.warn("Batch user existence check failed | usernames={} | error={}", usernames.size(), e.getMessage());
+            throw new AuthServiceUnavailableException("Could not verify users: auth-service unavailable", e);
+        }
+    }
+
+    private static boolean join(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 }
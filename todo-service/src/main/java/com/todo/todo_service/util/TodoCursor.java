@@ -0,0 +1,44 @@
+package com.todo.todo_service.util;
+
+import com.todo.todo_service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (createdAt DESC, id DESC) ordering of a user's todos.
+ * Clients only ever see the encoded form, so the layout can change freely.
+ */
+public record TodoCursor(OffsetDateTime createdAt, Long id) {
+
+    public static TodoCursor of(OffsetDateTime createdAt, Long id) {
+        return new TodoCursor(createdAt, id);
+    }
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + "." + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            int dot = raw.indexOf('.');
+            if (dot < 0 || colon < dot) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            return new TodoCursor(Instant.ofEpochSecond(seconds, nanos).atOffset(ZoneOffset.UTC), id);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
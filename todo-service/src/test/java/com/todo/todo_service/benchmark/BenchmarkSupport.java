@@ -0,0 +1,138 @@
+package com.todo.todo_service.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Shared seeding and timing helpers for the tagged benchmark tests (run with -Pbenchmark).
+ */
+final class BenchmarkSupport {
+
+    private static final String[] WORDS = {
+            "buy", "groceries", "call", "mom", "fix", "bike", "write", "report", "book", "flight",
+            "pay", "rent", "clean", "kitchen", "review", "pull", "request", "plan", "trip", "gym"
+    };
+
+    // Seeded rows take explicit ids far above anything the id generator hands out in a test run
+    private static final AtomicLong NEXT_ID = new AtomicLong(10_000_000);
+
+    private BenchmarkSupport() {
+    }
+
+    // Inserts `count` todos for the user with strictly decreasing createdAt, in JDBC batches
+    static void seedTodos(JdbcTemplate jdbc, String username, int count) {
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            Timestamp ts = Timestamp.from(base.plusSeconds(count - i));
+            String title = WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " " + i;
+            batch.add(new Object[]{NEXT_ID.getAndIncrement(), username, title, "benchmark row " + i, i % 3 == 0, ts, ts});
+            if (batch.size() == 1000) {
+                insert(jdbc, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(jdbc, batch);
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate(
+                "INSERT INTO todos (id, username, title, description, completed, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    // Runs the task warmup + iterations times and prints p50/p99/max of the measured runs
+    static long[] measure(String label, int warmup, int iterations, Runnable task) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            task.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-40s p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms%n",
+                label, millis(percentile(nanos, 50)), millis(percentile(nanos, 99)), millis(nanos[iterations - 1]));
+        return nanos;
+    }
+
+    // Average bytes the calling thread allocates per run, from HotSpot's per-thread allocation counter
+    static long measureAllocation(String label, int warmup, int iterations, Runnable task) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long perOp = (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+        System.out.printf("%-40s alloc/op=%10.1f KB%n", label, perOp / 1024.0);
+        return perOp;
+    }
+
+    // `clients` concurrent clients (virtual threads) each send `requestsPerClient` requests in a row;
+    // request(n) builds the n-th request of the level. Latencies in nanos, sorted; a non-200
+    // response or a request that timed out is recorded as -1
+    static long[] runClients(HttpClient client, int clients, int requestsPerClient,
+                             IntFunction<HttpRequest> request) throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] nanos = new long[requestsPerClient];
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        HttpRequest next = request.apply((int) sequence.getAndIncrement());
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(next, HttpResponse.BodyHandlers.discarding());
+                            nanos[r] = response.statusCode() == 200 ? System.nanoTime() - start : -1;
+                        } catch (HttpTimeoutException e) {
+                            nanos[r] = -1;
+                        }
+                    }
+                    return nanos;
+                }));
+            }
+        }
+        long[] all = new long[clients * requestsPerClient];
+        int i = 0;
+        for (Future<long[]> future : futures) {
+            for (long nanos : future.get()) {
+                all[i++] = nanos;
+            }
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    static long percentile(long[] sorted, int p) {
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
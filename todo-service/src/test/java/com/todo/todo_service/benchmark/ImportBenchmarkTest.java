@@ -0,0 +1,96 @@
+package com.todo.todo_service.benchmark;
+
+import com.todo.todo_service.cache.TodoPageCache;
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.search.TodoSearchIndex;
+import com.todo.todo_service.service.TodoCounterService;
+import com.todo.todo_service.service.TodoImportService;
+import com.todo.todo_service.service.TodoService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows/sec for POST /todos/import (NDJSON, chunked batch inserts) vs one createTodo call
+ * per row, against the embedded database. The import body is generated on the fly, so
+ * the payload itself is never held in memory.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({TodoImportService.class, TodoService.class, TodoCounterService.class,
+        TodoSearchIndex.class, TodoPageCache.class})
+class ImportBenchmarkTest {
+
+    private static final int IMPORT_ROWS = 100_000;
+    private static final int SINGLE_ROWS = 5_000;
+
+    @Autowired
+    private TodoImportService importService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Test
+    void importVersusSingleCreates() throws Exception {
+        long start = System.nanoTime();
+        TodoImportService.ImportProgress summary = importService.importTodos(
+                "import-user", TodoFileFormat.NDJSON, new GeneratedNdjson(IMPORT_ROWS), OutputStream.nullOutputStream());
+        report("import (NDJSON, chunked)", summary.imported(), System.nanoTime() - start);
+        assertEquals(IMPORT_ROWS, summary.imported());
+
+        start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setTitle("Single row " + i);
+            todoService.createTodo(request, "single-user");
+        }
+        report("createTodo per row", SINGLE_ROWS, System.nanoTime() - start);
+    }
+
+    private static void report(String label, long rows, long nanos) {
+        System.out.printf("%-40s rows=%7d  %10.0f rows/sec%n", label, rows, rows / (nanos / 1_000_000_000.0));
+    }
+
+    // Produces `rows` NDJSON lines lazily, one line at a time
+    private static final class GeneratedNdjson extends InputStream {
+
+        private final int rows;
+        private int row;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedNdjson(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (row == rows) {
+                    return -1;
+                }
+                line = ("{\"title\":\"Imported row " + row + "\",\"description\":\"benchmark\",\"completed\":"
+                        + (row % 3 == 0) + "}\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                row++;
+            }
+            return line[position++];
+        }
+    }
+}
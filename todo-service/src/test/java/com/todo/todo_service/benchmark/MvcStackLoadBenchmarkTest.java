@@ -0,0 +1,12 @@
+package com.todo.todo_service.benchmark;
+
+import org.junit.jupiter.api.Tag;
+
+@Tag("benchmark")
+class MvcStackLoadBenchmarkTest extends StackLoadBenchmark {
+
+    @Override
+    String stack() {
+        return "mvc";
+    }
+}
@@ -0,0 +1,88 @@
+package com.todo.todo_service.benchmark;
+
+import com.todo.todo_service.dto.TodoView;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.repo.TodoRepository;
+import com.todo.todo_service.util.TodoCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Page 1 vs page 500 latency for OFFSET + COUNT paging and for keyset (cursor) paging.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+class PaginationBenchmarkTest {
+
+    private static final String USER = "bench-user";
+    private static final int PAGE_SIZE = 10;
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        BenchmarkSupport.seedTodos(jdbcTemplate, USER, ROWS);
+        BenchmarkSupport.seedTodos(jdbcTemplate, "other-user", ROWS / 10);
+    }
+
+    @Test
+    void offsetVersusKeyset() {
+        Sort sort = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+        BenchmarkSupport.measure("offset  page 1", 20, 200, () ->
+                todoRepository.findByFilters(USER, "all", null, null, null, PageRequest.of(0, PAGE_SIZE, sort)));
+        BenchmarkSupport.measure("offset  page 500", 20, 200, () ->
+                todoRepository.findByFilters(USER, "all", null, null, null, PageRequest.of(499, PAGE_SIZE, sort)));
+
+        // Walk the cursor chain once to find the positions of page 2 and page 500
+        // (the first page of a cursor walk is always served by the page mode)
+        TodoCursor first = cursorAfterPage(1);
+        TodoCursor deep = cursorAfterPage(499);
+
+        BenchmarkSupport.measure("keyset  page 2", 20, 200, () -> keysetSlice(first));
+        BenchmarkSupport.measure("keyset  page 500", 20, 200, () -> keysetSlice(deep));
+
+        // Both modes must land on the same rows
+        List<Todo> viaOffset = todoRepository.findByFilters(USER, "all", null, null, null,
+                PageRequest.of(499, PAGE_SIZE, sort)).getContent();
+        List<TodoView> viaCursor = keysetSlice(deep).getContent();
+        assertEquals(viaOffset.stream().map(Todo::getId).toList(), viaCursor.stream().map(TodoView::id).toList());
+    }
+
+    private Slice<TodoView> keysetSlice(TodoCursor cursor) {
+        return todoRepository.findByFiltersAfter(USER, "all", null, null, null,
+                cursor.createdAt(), cursor.id(), PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private TodoCursor cursorAfterPage(int pages) {
+        Pageable firstPage = PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+        List<TodoView> content = todoRepository.findSliceByFilters(USER, "all", null, null, null, firstPage).getContent();
+        TodoCursor cursor = last(content);
+        for (int i = 1; i < pages; i++) {
+            cursor = last(keysetSlice(cursor).getContent());
+        }
+        return cursor;
+    }
+
+    private static TodoCursor last(List<TodoView> content) {
+        TodoView todo = content.get(content.size() - 1);
+        return TodoCursor.of(todo.createdAt(), todo.id());
+    }
+}
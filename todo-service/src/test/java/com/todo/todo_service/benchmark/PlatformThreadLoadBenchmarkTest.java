@@ -0,0 +1,14 @@
+package com.todo.todo_service.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+@Tag("benchmark")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadLoadBenchmarkTest extends ThreadModeLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
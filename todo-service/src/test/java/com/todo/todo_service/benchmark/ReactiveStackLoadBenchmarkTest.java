@@ -0,0 +1,19 @@
+package com.todo.todo_service.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@Tag("benchmark")
+@ActiveProfiles("reactive")
+@TestPropertySource(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-load?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"})
+class ReactiveStackLoadBenchmarkTest extends StackLoadBenchmark {
+
+    @Override
+    String stack() {
+        return "reactive";
+    }
+}
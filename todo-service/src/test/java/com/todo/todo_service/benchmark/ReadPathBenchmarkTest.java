@@ -0,0 +1,106 @@
+package com.todo.todo_service.benchmark;
+
+import com.todo.todo_service.dto.TodoView;
+import com.todo.todo_service.generated.model.TodoResponse;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.repo.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * List page read path: managed entities in a read-write transaction (hydration, persistence
+ * context, dirty check at commit) vs TodoView projections in a read-only transaction.
+ * Reports allocation per request and p50/p99 latency.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadPathBenchmarkTest {
+
+    private static final String USER = "bench-user";
+    private static final int ROWS = 5_000;
+    private static final Pageable PAGE = PageRequest.of(0, 100,
+            Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        if (todoRepository.countByUsername(USER) == 0) {
+            BenchmarkSupport.seedTodos(jdbcTemplate, USER, ROWS);
+        }
+    }
+
+    @Test
+    void entityVersusProjection() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Runnable entities = () -> readWrite.execute(tx -> todoRepository
+                .findByFilters(USER, "all", null, null, null, PAGE)
+                .map(ReadPathBenchmarkTest::fromEntity)
+                .getContent());
+        Runnable projections = () -> readOnly.execute(tx -> todoRepository
+                .findViewsByFilters(USER, "all", null, null, null, PAGE)
+                .map(ReadPathBenchmarkTest::fromView)
+                .getContent());
+
+        List<Long> entityIds = readWrite.execute(tx -> todoRepository
+                .findByFilters(USER, "all", null, null, null, PAGE).map(Todo::getId).getContent());
+        List<Long> viewIds = readOnly.execute(tx -> todoRepository
+                .findViewsByFilters(USER, "all", null, null, null, PAGE).map(TodoView::id).getContent());
+        assertEquals(entityIds, viewIds);
+
+        BenchmarkSupport.measureAllocation("entities   (read-write)", 50, 500, entities);
+        BenchmarkSupport.measureAllocation("projection (read-only)", 50, 500, projections);
+        BenchmarkSupport.measure("entities   (read-write)", 50, 500, entities);
+        BenchmarkSupport.measure("projection (read-only)", 50, 500, projections);
+    }
+
+    private static TodoResponse fromEntity(Todo todo) {
+        TodoResponse res = new TodoResponse();
+        res.setId(todo.getId());
+        res.setUsername(todo.getUsername());
+        res.setTitle(todo.getTitle());
+        res.setDescription(todo.getDescription());
+        res.setCompleted(todo.isCompleted());
+        res.setCreatedAt(todo.getCreatedAt());
+        res.setUpdatedAt(todo.getUpdatedAt());
+        return res;
+    }
+
+    private static TodoResponse fromView(TodoView view) {
+        TodoResponse res = new TodoResponse();
+        res.setId(view.id());
+        res.setUsername(view.username());
+        res.setTitle(view.title());
+        res.setDescription(view.description());
+        res.setCompleted(view.completed());
+        res.setCreatedAt(view.createdAt());
+        res.setUpdatedAt(view.updatedAt());
+        return res;
+    }
+}
@@ -0,0 +1,65 @@
+package com.todo.todo_service.benchmark;
+
+import com.todo.todo_service.repo.TodoRepository;
+import com.todo.todo_service.search.TodoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Title search over 100k todos for one user: LIKE '%term%' query vs the in-process trigram index
+ * (index lookup + loading the page's rows by id).
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "todo.search.index.enabled=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TodoSearchIndex.class)
+class SearchBenchmarkTest {
+
+    private static final String USER = "bench-user";
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (todoRepository.countByUsername(USER) == 0) {
+            BenchmarkSupport.seedTodos(jdbcTemplate, USER, ROWS);
+            searchIndex.rebuild();
+        }
+    }
+
+    @Test
+    void likeVersusTrigramIndex() {
+        for (String term : new String[]{"kitchen report", "flight 4242", "gym"}) {
+            Sort sort = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+            long likeTotal = todoRepository.findByFilters(USER, "all", term, null, null,
+                    PageRequest.of(0, 10, sort)).getTotalElements();
+            long indexTotal = searchIndex.search(USER, term, "all", null, null, 0, null, 10).total();
+            assertEquals(likeTotal, indexTotal, "index and LIKE disagree for '" + term + "'");
+
+            BenchmarkSupport.measure("LIKE   '" + term + "'", 5, 50, () ->
+                    todoRepository.findByFilters(USER, "all", term, null, null, PageRequest.of(0, 10, sort)));
+            BenchmarkSupport.measure("index  '" + term + "'", 5, 50, () ->
+                    todoRepository.findViewsByIdIn(searchIndex.search(USER, term, "all", null, null, 0, null, 10).ids()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.todo.todo_service.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+/**
+ * The real todo endpoints through the full stack (security filter, controller, service,
+ * embedded H2) at rising client concurrency: four list reads (page of 20 with its total) to
+ * every create. Subclasses boot the MVC stack (Tomcat, JPA/Hikari) and the reactive profile
+ * (Netty, WebFlux, R2DBC) with the same pool size; the page cache is off so both hit the database.
+ * <p>
+ * Caveats when reading the numbers: r2dbc-h2 drives the embedded database synchronously on the
+ * calling thread, so the reactive run measures framework and scheduling overhead rather than
+ * non-blocking database I/O; and the MVC stack answers status-only totals from todo_counters
+ * where the reactive one runs a COUNT.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.cloud.config.enabled=false", "eureka.client.enabled=false",
+                "logging.level.com.todo.audit_service=OFF",
+                "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "todo.cache.pages.enabled=false",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "spring.r2dbc.pool.initial-size=20",
+                "spring.r2dbc.pool.max-size=20"})
+abstract class StackLoadBenchmark {
+
+    private static final String USER = "load-user";
+    private static final int SEEDED_TODOS = 500;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int[] CONCURRENCY = {25, 50, 100, 200, 400, 800};
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void concurrencySweep() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest list = request("/todos?page=1&size=20").GET().build();
+
+        // Seed through the API itself so both stacks start from the same rows; doubles as warm-up
+        BenchmarkSupport.runClients(client, 10, SEEDED_TODOS / 10, n -> create(n));
+        BenchmarkSupport.runClients(client, 50, REQUESTS_PER_CLIENT, n -> n % 5 == 4 ? create(n) : list);
+
+        for (int clients : CONCURRENCY) {
+            long started = System.nanoTime();
+            long[] latencies = BenchmarkSupport.runClients(client, clients, REQUESTS_PER_CLIENT,
+                    n -> n % 5 == 4 ? create(n) : list);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            long failed = Arrays.stream(latencies).filter(nanos -> nanos < 0).count();
+            long[] succeeded = Arrays.stream(latencies).filter(nanos -> nanos >= 0).toArray();
+            System.out.printf("%-9s clients=%4d  %8.0f req/s  p50=%7.1f ms  p99=%7.1f ms  failed=%d%n",
+                    stack(), clients, succeeded.length / seconds,
+                    succeeded.length > 0 ? BenchmarkSupport.percentile(succeeded, 50) / 1e6 : Double.NaN,
+                    succeeded.length > 0 ? BenchmarkSupport.percentile(succeeded, 99) / 1e6 : Double.NaN,
+                    failed);
+        }
+        System.out.printf("%-9s heap used after sweep: %d MB%n", stack(),
+                (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+    }
+
+    abstract String stack();
+
+    private HttpRequest create(int n) {
+        String body = "{\"title\":\"load todo " + n + "\",\"description\":\"created under load\",\"completed\":"
+                + (n % 3 == 0) + "}";
+        return request("/todos")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-User", USER)
+                .header("X-Roles", "ROLE_USER")
+                .timeout(Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,94 @@
+package com.todo.todo_service.benchmark;
+
+import com.todo.todo_service.repo.TodoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives a probe endpoint that behaves like a typical todo-service request (50 ms of blocking
+ * downstream I/O, one JDBC query, the synchronous audit insert) at rising client concurrency
+ * and reports throughput, p99 and failed requests per level. The highest level without
+ * failures whose p99 stays under 2x the probe's own latency is reported as the max
+ * sustainable concurrency.
+ * Subclasses run it with Tomcat on platform threads and on virtual threads.
+ */
+// Without a tracer the audit row has no span id and its insert fails; the round trip still
+// happens, but the per-request error logging would dominate the measurement, so it is muted
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.cloud.config.enabled=false", "eureka.client.enabled=false",
+                "logging.level.com.todo.audit_service=OFF",
+                "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF"})
+@Import(ThreadModeLoadBenchmark.LoadProbeController.class)
+abstract class ThreadModeLoadBenchmark {
+
+    private static final long DOWNSTREAM_MILLIS = 50;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final int[] CONCURRENCY = {50, 100, 200, 400, 800, 1600};
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void concurrencySweep() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load-probe"))
+                .header("X-User", "load-user")
+                .header("X-Roles", "ROLE_USER")
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        // Warm up connections, JIT and the pool
+        BenchmarkSupport.runClients(client, 50, REQUESTS_PER_CLIENT, n -> request);
+
+        int sustainable = 0;
+        for (int clients : CONCURRENCY) {
+            long started = System.nanoTime();
+            long[] latencies = BenchmarkSupport.runClients(client, clients, REQUESTS_PER_CLIENT, n -> request);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            long failed = Arrays.stream(latencies).filter(nanos -> nanos < 0).count();
+            long[] succeeded = Arrays.stream(latencies).filter(nanos -> nanos >= 0).toArray();
+            long p99 = succeeded.length > 0 ? BenchmarkSupport.percentile(succeeded, 99) : Long.MAX_VALUE;
+            System.out.printf("%-10s clients=%5d  %8.0f req/s  p50=%7.1f ms  p99=%7.1f ms  failed=%d%n",
+                    mode(), clients, succeeded.length / seconds,
+                    succeeded.length > 0 ? BenchmarkSupport.percentile(succeeded, 50) / 1e6 : Double.NaN,
+                    p99 / 1e6, failed);
+            if (failed == 0 && p99 <= 2 * DOWNSTREAM_MILLIS * 1_000_000) {
+                sustainable = clients;
+            }
+        }
+        System.out.printf("%-10s max sustainable concurrency (p99 <= %d ms): %d%n",
+                mode(), 2 * DOWNSTREAM_MILLIS, sustainable);
+    }
+
+    abstract String mode();
+
+    @RestController
+    static class LoadProbeController {
+
+        private final TodoRepository todoRepository;
+
+        LoadProbeController(TodoRepository todoRepository) {
+            this.todoRepository = todoRepository;
+        }
+
+        @GetMapping("/load-probe")
+        public long probe() throws InterruptedException {
+            Thread.sleep(DOWNSTREAM_MILLIS);   // stands in for a remote call such as UserValidator
+            return todoRepository.countByUsername("load-user");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.todo.todo_service.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.ActiveProfiles;
+
+@Tag("benchmark")
+@ActiveProfiles("virtual-threads")
+class VirtualThreadLoadBenchmarkTest extends ThreadModeLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
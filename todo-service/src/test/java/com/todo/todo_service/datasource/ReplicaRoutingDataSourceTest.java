@@ -0,0 +1,142 @@
+package com.todo.todo_service.datasource;
+
+import com.todo.todo_service.config.ReadReplicaConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Primary and replica are two separate in-memory H2 databases; the connection URL shows where a transaction ran
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "todo.datasource.replicas[0].url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "todo.datasource.replicas[0].username=sa",
+        "todo.datasource.read-your-writes-window=300ms",
+        "todo.datasource.health-check-interval=0s"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ReadReplicaConfig.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecentWriters recentWriters;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertTrue(databaseUrl(true).contains("routing-replica"));
+        assertTrue(databaseUrl(false).contains("routing-primary"));
+        // Outside a transaction there is no read-only flag to route on
+        assertTrue(jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getURL()).contains("routing-primary"));
+    }
+
+    @Test
+    void writersReadFromThePrimaryInsideTheirWindow() throws InterruptedException {
+        recentWriters.record("alice");
+
+        actAs("alice");
+        assertTrue(databaseUrl(true).contains("routing-primary"));
+        actAs("bob");
+        assertTrue(databaseUrl(true).contains("routing-replica"));
+
+        Thread.sleep(400);
+        actAs("alice");
+        assertTrue(databaseUrl(true).contains("routing-replica"));
+    }
+
+    @Test
+    void failingReplicaIsEjectedAndRestored() throws Exception {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:ejection-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        SwitchableDataSource replica = new SwitchableDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:ejection-replica;DB_CLOSE_DELAY=-1", "sa", ""));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+                new RecentWriters(Duration.ofSeconds(1)), Duration.ZERO);
+        routing.afterPropertiesSet();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            replica.down = true;
+            assertEquals(List.of("ejection-primary", "ejection-primary"),
+                    List.of(databaseName(routing), databaseName(routing)));
+            assertEquals(0, routing.healthyReplicas());
+
+            routing.checkReplicas();
+            assertEquals(0, routing.healthyReplicas());
+
+            replica.down = false;
+            routing.checkReplicas();
+            assertEquals(1, routing.healthyReplicas());
+            assertEquals("ejection-replica", databaseName(routing));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private String databaseUrl(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getURL()));
+    }
+
+    private static String databaseName(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            return url.substring("jdbc:h2:mem:".length(), url.indexOf(';') > 0 ? url.indexOf(';') : url.length());
+        }
+    }
+
+    private static void actAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.todo.todo_service.filter;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataR2dbcTest(properties = {"spring.cloud.config.enabled=false",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-audit-test?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"})
+@ActiveProfiles("reactive")
+@Import(ReactiveAuditWebFilter.class)
+class ReactiveAuditWebFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private ReactiveAuditWebFilter auditFilter;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @AfterEach
+    void cleanUp() {
+        databaseClient.sql("DELETE FROM audit_logs").then().block();
+    }
+
+    @Test
+    void handledRequestWritesTheAspectsRow() throws Exception {
+        MockServerWebExchange exchange = exchange("deleteTodo");
+
+        Span span = Span.wrap(SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault()));
+        try (Scope ignored = span.makeCurrent()) {
+            auditFilter.filter(exchange, e -> Mono.empty()).block();
+        }
+
+        assertEquals(List.of(Map.of(
+                        "TRACE_ID", TRACE_ID,
+                        "SPAN_ID", SPAN_ID,
+                        "TRACE_FLAGS", "01",
+                        "REQUEST_ID", "req-1",
+                        "USER_ID", "alice",
+                        "ACTION", "DELETE",
+                        "SERVICE", "Todo")),
+                databaseClient.sql("SELECT trace_id, span_id, trace_flags, request_id, user_id, action, service FROM audit_logs")
+                        .fetch()
+                        .all()
+                        .collectList()
+                        .block());
+    }
+
+    @Test
+    void requestWithoutSpanTakesTheGatewaysTraceparent() throws Exception {
+        MockServerWebExchange exchange = exchange("deleteTodo", "00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+
+        auditFilter.filter(exchange, e -> Mono.empty()).block();
+
+        assertEquals(List.of(TRACE_ID, SPAN_ID, "01"),
+                databaseClient.sql("SELECT trace_id, span_id, trace_flags FROM audit_logs")
+                        .map(row -> List.of(row.get("trace_id", String.class), row.get("span_id", String.class),
+                                row.get("trace_flags", String.class)))
+                        .one()
+                        .block());
+    }
+
+    @Test
+    void failedRequestWritesNothing() throws Exception {
+        MockServerWebExchange exchange = exchange("createTodo");
+
+        auditFilter.filter(exchange, e -> {
+            e.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return Mono.empty();
+        }).block();
+
+        assertEquals(0L, databaseClient.sql("SELECT COUNT(*) AS n FROM audit_logs")
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block());
+    }
+
+    // What DispatcherHandler leaves on the exchange once a ReactiveTodoController method has handled it
+    private static MockServerWebExchange exchange(String method, String... traceparent) throws NoSuchMethodException {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.delete("/todos/1")
+                .header("X-User", "alice")
+                .header("X-Request-Id", "req-1")
+                .header("traceparent", traceparent));
+        exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new ReactiveTodoController(), ReactiveTodoController.class.getMethod(method)));
+        return exchange;
+    }
+
+    static class ReactiveTodoController {
+
+        public void createTodo() {
+        }
+
+        public void deleteTodo() {
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.exception.TodoNotFoundException;
+import com.todo.todo_service.exception.UnauthorizedTodoAccessException;
+import com.todo.todo_service.generated.model.BatchTodoOperation;
+import com.todo.todo_service.generated.model.BatchTodoResult;
+import com.todo.todo_service.generated.model.PaginatedTodoResponse;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.generated.model.TodoResponse;
+import com.todo.todo_service.generated.model.TodoSummary;
+import com.todo.todo_service.repo.ReactiveTodoIdAllocator;
+import com.todo.todo_service.repo.ReactiveTodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataR2dbcTest(properties = {"spring.cloud.config.enabled=false",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-service-test?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql",
+        "todo.import.chunk-size=2"})
+@ActiveProfiles("reactive")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ReactiveTodoService.class, ReactiveTodoRepository.class, ReactiveTodoIdAllocator.class})
+class ReactiveTodoServiceTest {
+
+    private static final String USER = "alice";
+
+    @Autowired
+    private ReactiveTodoService todoService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @AfterEach
+    void cleanUp() {
+        databaseClient.sql("DELETE FROM todos").then().block();
+        databaseClient.sql("DELETE FROM todo_counters").then().block();
+    }
+
+    @Test
+    void writesKeepTotalsAndCountersInStep() {
+        TodoResponse first = create("Buy milk", false, USER);
+        create("Walk dog", true, USER);
+        create("Other user", false, "bob");
+        TodoResponse third = create("Pay rent", false, USER);
+
+        todoService.toggleTodo(first.getId(), true, USER).block();
+        todoService.updateTodo(first.getId(), request("Buy oat milk", true), USER).block();
+        todoService.deleteTodo(third.getId(), USER).block();
+
+        assertEquals(2, list("all").getTotalElements());
+        assertEquals(2, list("completed").getTotalElements());
+        assertEquals(0, list("pending").getTotalElements());
+        assertEquals(List.of(2L, 2L), databaseClient.sql("SELECT total, completed FROM todo_counters WHERE username = 'alice'")
+                .map(row -> List.of(row.get("total", Long.class), row.get("completed", Long.class)))
+                .one()
+                .block());
+    }
+
+    @Test
+    void writesTellMissingFromForeign() {
+        TodoResponse theirs = create("Not yours", false, "bob");
+
+        StepVerifier.create(todoService.toggleTodo(theirs.getId(), true, USER))
+                .expectError(UnauthorizedTodoAccessException.class)
+                .verify();
+        StepVerifier.create(todoService.deleteTodo(theirs.getId(), USER))
+                .expectError(UnauthorizedTodoAccessException.class)
+                .verify();
+        StepVerifier.create(todoService.updateTodo(-1L, request("Nope", false), USER))
+                .expectError(TodoNotFoundException.class)
+                .verify();
+
+        // Re-applying the current state is a no-op, not an error
+        assertFalse(todoService.toggleTodo(theirs.getId(), false, "bob").block().getCompleted());
+    }
+
+    @Test
+    void cursorPagesWalkTheListNewestFirst() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(create("Todo " + i, false, USER).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        PaginatedTodoResponse page = todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, null, null).block();
+        seen.addAll(page.getContent().stream().map(TodoResponse::getId).toList());
+        while (page.getHasNext()) {
+            page = todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, page.getNextCursor(), null).block();
+            assertNull(page.getTotalElements());
+            seen.addAll(page.getContent().stream().map(TodoResponse::getId).toList());
+        }
+
+        assertEquals(created.reversed(), seen);
+    }
+
+    @Test
+    void batchReportsPerItemOutcomes() {
+        TodoResponse mine = create("Water plants", false, USER);
+        TodoResponse theirs = create("Not yours", false, "bob");
+
+        List<BatchTodoResult> results = todoService.applyBatch(List.of(
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.CREATE).todo(request("New one", true)),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.TOGGLE).id(mine.getId()).completed(true),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.DELETE).id(theirs.getId()),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.DELETE).id(-1L)
+        ), USER).block();
+
+        assertEquals(List.of(200, 200, 403, 404), results.stream().map(BatchTodoResult::getStatus).toList());
+        assertEquals("New one", results.get(0).getTodo().getTitle());
+        assertTrue(results.get(1).getTodo().getCompleted());
+        assertEquals(2, list("completed").getTotalElements());
+    }
+
+    @Test
+    void summaryCountsAndDateSpan() {
+        assertNull(todoService.getSummary(USER).block().getNewest());
+
+        create("Buy milk", false, USER);
+        create("Walk dog", true, USER);
+        create("Other user", false, "bob");
+
+        TodoSummary summary = todoService.getSummary(USER).block();
+        assertEquals(2, summary.getTotal());
+        assertEquals(1, summary.getCompleted());
+        assertEquals(1, summary.getPending());
+        assertFalse(summary.getOldest().isAfter(summary.getNewest()));
+    }
+
+    @Test
+    void importReportsBadLinesAndCommitsTheRest() {
+        // Split mid-record, as the request body may arrive
+        Flux<DataBuffer> body = Flux.just("{\"title\":\"Buy milk\"}\n{\"title\":\"No\"}\nnot js", "on\n\n",
+                        "{\"title\":\"Walk dog\",\"completed\":true}\n{\"title\":\"Pay rent\"}\n")
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+
+        List<String> report = todoService.importTodos(USER, TodoFileFormat.NDJSON, body).collectList().block();
+
+        assertEquals("{\"type\":\"error\",\"line\":2,\"error\":\"title: size must be between 3 and 100\"}\n", report.get(0));
+        assertTrue(report.get(1).startsWith("{\"type\":\"error\",\"line\":3,\"error\":\"Malformed JSON"), report.get(1));
+        assertEquals("{\"type\":\"progress\",\"processed\":4,\"imported\":2,\"failed\":2}\n", report.get(2));
+        assertEquals("{\"type\":\"done\",\"processed\":5,\"imported\":3,\"failed\":2}\n", report.get(report.size() - 1));
+        assertEquals(3, list("all").getTotalElements());
+        assertEquals(1, list("completed").getTotalElements());
+    }
+
+    @Test
+    void listEtagMovesWithWritesAndFilters() {
+        String etag = todoService.listEtag(USER, "all", null, null, null, 1, 10, null, null).block();
+        assertEquals(etag, todoService.listEtag(USER, "all", null, null, null, 1, 10, null, null).block());
+        assertNotEquals(etag, todoService.listEtag(USER, "completed", null, null, null, 1, 10, null, null).block());
+
+        create("Buy milk", false, USER);
+
+        assertNotEquals(etag, todoService.listEtag(USER, "all", null, null, null, 1, 10, null, null).block());
+    }
+
+    private TodoResponse create(String title, boolean completed, String username) {
+        return todoService.createTodo(request(title, completed), username).block();
+    }
+
+    private PaginatedTodoResponse list(String status) {
+        return todoService.getFilteredTodos(USER, status, null, null, null, 1, 10, null, null).block();
+    }
+
+    private static TodoRequest request(String title, boolean completed) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        request.setCompleted(completed);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.repo.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// H2 rejects the default (MySQL streaming) fetch size
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "todo.export.fetch-size=1000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TodoExportService.class)
+class TodoExportServiceTest {
+
+    @Autowired
+    private TodoExportService exportService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @BeforeEach
+    void seed() {
+        todoRepository.deleteAll();
+        todoRepository.save(new Todo("alice", "Plain", "no specials", false));
+        todoRepository.save(new Todo("alice", "Quote \"this\", please", "line one\nline two", true));
+        todoRepository.save(new Todo("bob", "Not alice's", null, false));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        String[] lines = export("ndjson", "all").split("\n");
+
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"id\":"), line);
+            assertTrue(line.contains("\"username\":\"alice\""), line);
+        }
+    }
+
+    @Test
+    void csvQuotesSpecialCharactersAndHonoursFilters() throws Exception {
+        String csv = export("csv", "completed");
+
+        assertTrue(csv.startsWith("id,title,description,completed,createdAt,updatedAt\n"));
+        assertTrue(csv.contains(",\"Quote \"\"this\"\", please\",\"line one\nline two\",true,"), csv);
+        assertFalse(csv.contains("Plain"), csv);
+    }
+
+    private String export(String format, String status) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("alice", status, null, null, null, TodoFileFormat.from(format), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
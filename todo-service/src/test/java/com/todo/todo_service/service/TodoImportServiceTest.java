@@ -0,0 +1,97 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.dto.TodoFileFormat;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.repo.TodoCounterRepository;
+import com.todo.todo_service.repo.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "todo.import.chunk-size=2"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({TodoImportService.class, TodoCounterService.class})
+class TodoImportServiceTest {
+
+    private static final String USER = "alice";
+
+    @Autowired
+    private TodoImportService importService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoCounterRepository counterRepository;
+
+    @AfterEach
+    void cleanUp() {
+        todoRepository.deleteAll();
+        counterRepository.deleteAll();
+    }
+
+    @Test
+    void ndjsonReportsBadLinesAndCommitsTheRest() throws Exception {
+        String body = """
+                {"title":"Buy milk"}
+                {"title":"No"}
+                not json
+
+                {"title":"Walk dog","completed":true}
+                {"title":"Pay rent","description":"before the 5th"}
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        TodoImportService.ImportProgress summary = importService.importTodos(
+                USER, TodoFileFormat.NDJSON, stream(body), out);
+
+        assertEquals(new TodoImportService.ImportProgress("done", 5, 3, 2, null), summary);
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("{\"type\":\"error\",\"line\":2,\"error\":\"title: size must be between 3 and 100\"}"), report);
+        assertTrue(report.contains("\"line\":3,\"error\":\"Malformed JSON"), report);
+        assertTrue(report.contains("{\"type\":\"progress\",\"processed\":4,\"imported\":2,\"failed\":2}"), report);
+
+        List<Todo> todos = todoRepository.findByUsername(USER);
+        assertEquals(3, todos.size());
+        assertEquals(1, todos.stream().filter(Todo::isCompleted).count());
+    }
+
+    @Test
+    void csvHandlesQuotedFieldsAcrossLines() throws Exception {
+        String body = """
+                completed,title,description
+                false,"Plan trip, Rome","day one
+                day two"
+                maybe,Bad flag,
+                true,Book flight,
+                """;
+
+        TodoImportService.ImportProgress summary = importService.importTodos(
+                USER, TodoFileFormat.CSV, stream(body), new ByteArrayOutputStream());
+
+        assertEquals(new TodoImportService.ImportProgress("done", 3, 2, 1, null), summary);
+        Todo trip = todoRepository.findByUsernameAndCompleted(USER, false).get(0);
+        assertEquals("Plan trip, Rome", trip.getTitle());
+        assertEquals("day one\nday two", trip.getDescription());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,415 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.cache.TodoPageCache;
+import com.todo.todo_service.event.TodoChangedEvent;
+import com.todo.todo_service.exception.GlobalExceptionHandler;
+import com.todo.todo_service.exception.InvalidCursorException;
+import com.todo.todo_service.exception.TodoNotFoundException;
+import com.todo.todo_service.exception.UnauthorizedTodoAccessException;
+import com.todo.todo_service.generated.model.BatchTodoOperation;
+import com.todo.todo_service.generated.model.BatchTodoResult;
+import com.todo.todo_service.generated.model.PaginatedTodoResponse;
+import com.todo.todo_service.generated.model.TodoRequest;
+import com.todo.todo_service.generated.model.TodoResponse;
+import com.todo.todo_service.generated.model.TodoSummary;
+import com.todo.todo_service.model.Todo;
+import com.todo.todo_service.model.TodoCounter;
+import com.todo.todo_service.repo.TodoCounterRepository;
+import com.todo.todo_service.repo.TodoRepository;
+import com.todo.todo_service.search.TodoSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Service calls commit on their own so counter seeding (REQUIRES_NEW) sees the same data as production
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "todo.search.index.enabled=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+@Import({TodoService.class, TodoCounterService.class, TodoSearchIndex.class, TodoPageCache.class})
+class TodoServiceTest {
+
+    private static final String USER = "alice";
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private TodoPageCache pageCache;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoCounterRepository counterRepository;
+
+    @Autowired
+    private TodoCounterService counterService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        todoRepository.deleteAll();
+        counterRepository.deleteAll();
+        searchIndex.rebuild();
+        pageCache.invalidateAll();
+    }
+
+    @Test
+    void countersFollowEveryWrite() {
+        TodoResponse first = todoService.createTodo(request("Buy milk", false), USER);
+        todoService.createTodo(request("Walk dog", true), USER);
+        todoService.createTodo(request("Other user", false), "bob");
+
+        assertTotals(2, 1, 1);
+
+        TodoResponse third = todoService.createTodo(request("Pay rent", false), USER);
+        todoService.toggleTodo(first.getId(), true, USER);
+        assertTotals(3, 2, 1);
+
+        todoService.updateTodo(first.getId(), request("Buy oat milk", false), USER);
+        todoService.deleteTodo(third.getId(), USER);
+        assertTotals(2, 1, 1);
+    }
+
+    @Test
+    void firstWriteCreatesTheCounterRowFromExistingTodos() {
+        todoRepository.save(new Todo(USER, "Written before counters", null, true));
+        todoRepository.save(new Todo(USER, "Also older", null, false));
+
+        todoService.createTodo(request("Buy milk", false), USER);
+
+        TodoCounter counter = counterRepository.findById(USER).orElseThrow();
+        assertEquals(3, counter.getTotal());
+        assertEquals(1, counter.getCompleted());
+        assertTotals(3, 1, 2);
+    }
+
+    // Like the dashboard's parallel list and summary for a new user: both read transactions have
+    // taken their snapshot before either seeds, so the loser must re-read outside its snapshot.
+    // H2 only keeps a MySQL REPEATABLE READ style snapshot at SERIALIZABLE.
+    @Test
+    void concurrentFirstReadsBothSeeTheSeededCounters() throws Exception {
+        todoRepository.save(new Todo(USER, "Written before counters", null, true));
+        todoRepository.save(new Todo(USER, "Also older", null, false));
+
+        TransactionTemplate snapshotRead = new TransactionTemplate(transactionManager);
+        snapshotRead.setReadOnly(true);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        CyclicBarrier bothSnapshotted = new CyclicBarrier(2);
+        Callable<TodoCounter> firstRead = () -> snapshotRead.execute(tx -> {
+            assertTrue(counterRepository.findById(USER).isEmpty());
+            await(bothSnapshotted);
+            return counterService.get(USER);
+        });
+
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<TodoCounter>> reads = requests.invokeAll(List.of(firstRead, firstRead));
+            for (Future<TodoCounter> read : reads) {
+                assertEquals(2, read.get().getTotal());
+                assertEquals(1, read.get().getCompleted());
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void writesTellMissingFromForeign() {
+        TodoResponse theirs = todoService.createTodo(request("Not yours", false), "bob");
+
+        assertThrows(UnauthorizedTodoAccessException.class, () -> todoService.toggleTodo(theirs.getId(), true, USER));
+        assertThrows(UnauthorizedTodoAccessException.class, () -> todoService.deleteTodo(theirs.getId(), USER));
+        assertThrows(TodoNotFoundException.class, () -> todoService.updateTodo(-1L, request("Nope", false), USER));
+
+        // Re-applying the current state is a no-op, not an error
+        TodoResponse same = todoService.toggleTodo(theirs.getId(), false, "bob");
+        assertFalse(same.getCompleted());
+    }
+
+    @Test
+    void repeatedTogglesChangeNothingAndPublishNothing() {
+        TodoResponse todo = todoService.createTodo(request("Buy milk", false), USER);
+        todoService.toggleTodo(todo.getId(), true, USER);
+        String etag = etag("all");
+        events.clear();
+
+        TodoResponse again = todoService.toggleTodo(todo.getId(), true, USER);
+
+        assertTrue(again.getCompleted());
+        assertEquals(0, events.stream(TodoChangedEvent.class).count());
+        assertEquals(etag, etag("all"));
+        assertTotals(1, 1, 0);
+    }
+
+    @Test
+    void listPagesAreCachedUntilTheOwnerWrites() {
+        todoService.createTodo(request("Buy milk", false), USER);
+
+        PaginatedTodoResponse first = list("all");
+        assertSame(first, list("all"));
+
+        todoService.createTodo(request("Someone else's", false), "bob");
+        assertSame(first, list("all"));
+
+        todoService.createTodo(request("Walk dog", false), USER);
+        PaginatedTodoResponse afterWrite = list("all");
+        assertNotSame(first, afterWrite);
+        assertEquals(2, afterWrite.getTotalElements());
+    }
+
+    @Test
+    void cachedPagesAreRetiredByWritesThroughAnotherInstance() {
+        todoService.createTodo(request("Buy milk", false), USER);
+        PaginatedTodoResponse cached = list("all");
+        assertSame(cached, list("all"));
+
+        writeElsewhere(new Todo(USER, "Walk dog", null, false));
+
+        PaginatedTodoResponse fresh = list("all");
+        assertNotSame(cached, fresh);
+        assertEquals(2, fresh.getTotalElements());
+        assertEquals(2, fresh.getContent().size());
+    }
+
+    @Test
+    void listEtagChangesWithTheOwnersWritesAndFilters() {
+        String all = etag("all");
+        assertEquals(all, etag("all"));
+        assertNotEquals(all, etag("pending"));
+
+        todoService.createTodo(request("Someone else's", false), "bob");
+        assertEquals(all, etag("all"));
+
+        todoService.createTodo(request("Buy milk", false), USER);
+        assertNotEquals(all, etag("all"));
+    }
+
+    @Test
+    void listEtagChangesWithWritesThroughAnotherInstance() {
+        todoService.createTodo(request("Buy milk", false), USER);
+        String before = etag("all");
+
+        writeElsewhere(new Todo(USER, "Walk dog", null, false));
+
+        assertNotEquals(before, etag("all"));
+    }
+
+    @Test
+    void searchWithoutExactTotalSkipsCount() {
+        for (int i = 0; i < 3; i++) {
+            todoService.createTodo(request("Read book " + i, false), USER);
+        }
+
+        PaginatedTodoResponse response = todoService.getFilteredTodos(
+                USER, "all", "book", null, null, 1, 2, null, false);
+
+        assertEquals(2, response.getContent().size());
+        assertTrue(response.getHasNext());
+        assertFalse(response.getLast());
+        assertNull(response.getTotalElements());
+    }
+
+    @Test
+    void searchIndexTracksWritesAfterRebuild() {
+        TodoResponse milk = todoService.createTodo(request("Buy milk", false), USER);
+        todoService.createTodo(request("Buy bread", true), USER);
+        todoService.createTodo(request("Buy milk", false), "bob");
+        searchIndex.rebuild();
+
+        TodoResponse oatMilk = todoService.createTodo(request("Oat MILK", false), USER);
+        todoService.updateTodo(milk.getId(), request("Buy cheese", false), USER);
+
+        PaginatedTodoResponse milkHits = todoService.getFilteredTodos(
+                USER, "all", "milk", null, null, 1, 10, null, null);
+        assertEquals(1, milkHits.getTotalElements());
+        assertEquals(oatMilk.getId(), milkHits.getContent().get(0).getId());
+
+        PaginatedTodoResponse pendingBuys = todoService.getFilteredTodos(
+                USER, "pending", "buy", null, null, 1, 10, null, null);
+        assertEquals(1, pendingBuys.getTotalElements());
+        assertEquals("Buy cheese", pendingBuys.getContent().get(0).getTitle());
+    }
+
+    @Test
+    void searchIndexCatchesUpWithWritesThroughAnotherInstance() {
+        searchIndex.rebuild();
+
+        writeElsewhere(new Todo(USER, "Buy milk", null, false));
+        assertEquals(0, search("milk").getTotalElements());
+
+        searchIndex.catchUp();
+        assertEquals(1, search("milk").getTotalElements());
+    }
+
+    @Test
+    void searchIndexIgnoresChangesOlderThanWhatItHolds() {
+        TodoResponse todo = todoService.createTodo(request("Buy milk", false), USER);
+        todoService.updateTodo(todo.getId(), request("Buy cheese", false), USER);
+        searchIndex.rebuild();
+
+        // A replay of the create, arriving after the update
+        searchIndex.onTodoChanged(new TodoChangedEvent(TodoChangedEvent.Type.UPSERTED, USER, todo.getId(),
+                "Buy milk", false, todo.getCreatedAt(), todo.getUpdatedAt()));
+
+        assertEquals(0, search("milk").getTotalElements());
+        assertEquals(1, search("cheese").getTotalElements());
+    }
+
+    // A batch or an import commits many rows within the same instant; the id breaks the tie,
+    // including when a page boundary falls between rows sharing a createdAt
+    @Test
+    void cursorPagesWalkTiedTimestampsWithoutGapsOrDuplicates() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(todoService.createTodo(request("Todo " + i, i % 2 == 0), USER).getId());
+        }
+        todoService.createTodo(request("Other user", false), "bob");
+        jdbcTemplate.update("UPDATE todos SET created_at = (SELECT MIN(created_at) FROM todos) WHERE id IN (?, ?, ?, ?, ?)",
+                created.get(0), created.get(1), created.get(2), created.get(3), created.get(4));
+
+        List<Long> seen = new ArrayList<>();
+        PaginatedTodoResponse page = todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, null, false);
+        seen.addAll(page.getContent().stream().map(TodoResponse::getId).toList());
+        while (page.getHasNext()) {
+            page = todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, page.getNextCursor(), null);
+            seen.addAll(page.getContent().stream().map(TodoResponse::getId).toList());
+        }
+
+        assertEquals(created.reversed(), seen);
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.getLast());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        InvalidCursorException invalid = assertThrows(InvalidCursorException.class,
+                () -> todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, "not-a-cursor", null));
+        assertThrows(InvalidCursorException.class,
+                () -> todoService.getFilteredTodos(USER, "all", null, null, null, 1, 2, "%%%", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, new GlobalExceptionHandler().handleInvalidCursor(invalid).getStatusCode());
+    }
+
+    @Test
+    void batchReportsPerItemOutcomes() {
+        TodoResponse mine = todoService.createTodo(request("Water plants", false), USER);
+        TodoResponse theirs = todoService.createTodo(request("Not yours", false), "bob");
+
+        List<BatchTodoResult> results = todoService.applyBatch(List.of(
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.CREATE).todo(request("New one", true)),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.TOGGLE).id(mine.getId()).completed(true),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.DELETE).id(theirs.getId()),
+                new BatchTodoOperation().op(BatchTodoOperation.OpEnum.DELETE).id(-1L)
+        ), USER);
+
+        assertEquals(List.of(200, 200, 403, 404), results.stream().map(BatchTodoResult::getStatus).toList());
+        assertEquals("New one", results.get(0).getTodo().getTitle());
+        assertTrue(results.get(1).getTodo().getCompleted());
+        assertTotals(2, 2, 0);
+    }
+
+    @Test
+    void summaryHasTotalsAndTheDateSpan() {
+        TodoSummary empty = todoService.getSummary(USER);
+        assertEquals(0, empty.getTotal());
+        assertNull(empty.getOldest());
+        assertNull(empty.getNewest());
+
+        todoService.createTodo(request("Buy milk", false), USER);
+        todoService.createTodo(request("Walk dog", true), USER);
+        todoService.createTodo(request("Other user", false), "bob");
+
+        TodoSummary summary = todoService.getSummary(USER);
+        assertEquals(2, summary.getTotal());
+        assertEquals(1, summary.getCompleted());
+        assertEquals(1, summary.getPending());
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertTrue(!summary.getOldest().isAfter(summary.getNewest()));
+        assertTrue(!summary.getNewest().isBefore(today.minusDays(1)) && !summary.getNewest().isAfter(today));
+    }
+
+    // What another todo-service instance does for a create: same tables, none of this instance's events
+    private void writeElsewhere(Todo todo) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            todoRepository.save(todo);
+            counterRepository.adjust(todo.getUsername(), 1, todo.isCompleted() ? 1 : 0);
+        });
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void assertTotals(long all, long completed, long pending) {
+        assertEquals(all, list("all").getTotalElements());
+        assertEquals(completed, list("completed").getTotalElements());
+        assertEquals(pending, list("pending").getTotalElements());
+    }
+
+    private String etag(String status) {
+        return todoService.listEtag(USER, status, null, null, null, 1, 10, null, null);
+    }
+
+    private PaginatedTodoResponse search(String term) {
+        return todoService.getFilteredTodos(USER, "all", term, null, null, 1, 10, null, null);
+    }
+
+    private PaginatedTodoResponse list(String status) {
+        return todoService.getFilteredTodos(USER, status, null, null, null, 1, 10, null, null);
+    }
+
+    private static TodoRequest request(String title, boolean completed) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        request.setCompleted(completed);
+        return request;
+    }
+}
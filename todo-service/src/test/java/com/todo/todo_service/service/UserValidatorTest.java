@@ -0,0 +1,117 @@
+package com.todo.todo_service.service;
+
+import com.todo.todo_service.exception.AuthServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// auth-service is stood in for by an interceptor that answers every request itself and records it
+class UserValidatorTest {
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean authServiceDown;
+
+    private final UserValidator validator = new UserValidator(authService(Set.of("alice", "bob")),
+            Duration.ofMinutes(10), Duration.ofMillis(200), 1_000);
+
+    @Test
+    void answersAreCachedWithShortNegativeTtl() throws InterruptedException {
+        assertTrue(validator.userExists("alice"));
+        assertTrue(validator.userExists("alice"));
+        assertFalse(validator.userExists("mallory"));
+        assertFalse(validator.userExists("mallory"));
+        assertEquals(List.of("GET /auth/exists/alice", "GET /auth/exists/mallory"), requests);
+
+        Thread.sleep(300);
+        validator.userExists("alice");
+        validator.userExists("mallory");
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void concurrentChecksShareOneRequest() throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> validator.userExists("bob")));
+            }
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void failuresAreReportedNotCached() {
+        authServiceDown = true;
+        assertThrows(AuthServiceUnavailableException.class, () -> validator.userExists("alice"));
+
+        authServiceDown = false;
+        assertTrue(validator.userExists("alice"));
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void batchAsksOnlyForUnknownUsersInOneRequest() {
+        validator.userExists("alice");
+
+        assertEquals(Set.of("alice", "bob"), validator.existingUsers(List.of("alice", "bob", "mallory", "bob")));
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1).startsWith("POST /auth/exists "));
+        assertFalse(requests.get(1).contains("alice"));
+
+        // The batch answers populate the per-user cache
+        assertFalse(validator.userExists("mallory"));
+        assertEquals(2, requests.size());
+    }
+
+    private RestTemplate authService(Set<String> users) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            String path = request.getURI().getPath();
+            requests.add(request.getMethod() + " " + path + (body.length > 0 ? " " + new String(body, StandardCharsets.UTF_8) : ""));
+            if (authServiceDown) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            String json;
+            if (path.equals("/auth/exists")) {
+                String sent = new String(body, StandardCharsets.UTF_8);
+                json = "{\"existing\":[" + String.join(",", users.stream()
+                        .filter(user -> sent.contains("\"" + user + "\""))
+                        .map(user -> "\"" + user + "\"")
+                        .toList()) + "]}";
+            } else {
+                json = "{\"exists\":" + users.contains(path.substring(path.lastIndexOf('/') + 1)) + "}";
+            }
+            MockClientHttpResponse response = new MockClientHttpResponse(json.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response;
+        });
+        return restTemplate;
+    }
+}
@@ -0,0 +1,38 @@
+-- Tables the MVC stack's Hibernate creates, for tests that run the reactive profile alone
+-- (timestamps are local date-times, as in the MySQL DATETIME columns)
+CREATE TABLE IF NOT EXISTS todos (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    username    VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    completed   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_todos_username_created_at_id ON todos (username, created_at, id);
+
+CREATE TABLE IF NOT EXISTS todo_counters (
+    username  VARCHAR(255) NOT NULL PRIMARY KEY,
+    total     BIGINT       NOT NULL,
+    completed BIGINT       NOT NULL,
+    version   BIGINT       NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS todo_id_sequence (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id          BIGINT       AUTO_INCREMENT PRIMARY KEY,
+    trace_id    VARCHAR(32)  NOT NULL,
+    span_id     VARCHAR(16)  NOT NULL,
+    trace_flags VARCHAR(2),
+    request_id  VARCHAR(50),
+    user_id     VARCHAR(100) NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    service     VARCHAR(50)  NOT NULL,
+    ip_address  VARCHAR(45),
+    details     VARCHAR(4000),
+    timestamp   TIMESTAMP(6) NOT NULL
+);